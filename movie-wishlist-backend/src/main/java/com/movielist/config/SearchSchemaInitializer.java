@@ -0,0 +1,51 @@
+package com.movielist.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the full-text search columns and GIN indexes that Hibernate's schema update can't express.
+ * The tsvector columns are generated by Postgres, so every insert or update made through
+ * MovieService, SocialService or the TMDB catalog import keeps the search index current
+ * without extra writes.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SearchSchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchSchemaInitializer.class);
+
+    private static final String[] STATEMENTS = {
+            "ALTER TABLE movies ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+                    "setweight(to_tsvector('english', coalesce(genre, '')), 'B') || " +
+                    "setweight(to_tsvector('english', coalesce(review, '')), 'C')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_movies_search_vector ON movies USING GIN (search_vector)",
+            "ALTER TABLE comments ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                    "to_tsvector('english', coalesce(content, ''))) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_comments_search_vector ON comments USING GIN (search_vector)",
+            "ALTER TABLE tmdb_catalog ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+                    "setweight(to_tsvector('simple', coalesce(original_title, '')), 'B')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_tmdb_catalog_search_vector ON tmdb_catalog USING GIN (search_vector)"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void createSearchColumns() {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (Exception e) {
+                logger.error("Error creating search schema: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.movielist.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class TmdbClientConfig {
+
+    @Value("${tmdb.http.connect-timeout}")
+    private Duration connectTimeout;
+
+    @Value("${tmdb.http.threads}")
+    private int threads;
+
+    // Not a bean: only the HttpClient should run work on these threads
+    private ExecutorService executor;
+
+    // Shared client: keeps HTTP/2 and keep-alive connections to TMDB open across requests
+    @Bean
+    public HttpClient tmdbHttpClient() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tmdb-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.movielist.controller;
+
+import com.movielist.entity.User;
+import com.movielist.exception.ApiException;
+import com.movielist.exception.ResourceNotFoundException;
+import com.movielist.payload.FeedPageResponse;
+import com.movielist.repository.UserRepository;
+import com.movielist.service.FeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedController.class);
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @GetMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<FeedPageResponse> getFeed(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            User user = userRepository.findByUsername(auth.getName())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", auth.getName()));
+
+            FeedPageResponse feed = feedService.getFeed(user, before, size);
+            return ResponseEntity.ok(feed);
+        } catch (ResourceNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error getting activity feed: {}", e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get activity feed: " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.movielist.controller;
 
+import com.movielist.service.TmdbCacheWarmer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,6 +15,9 @@ import java.util.Map;
 @RequestMapping("/api/health")
 public class HealthController {
 
+    @Autowired
+    private TmdbCacheWarmer tmdbCacheWarmer;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> response = new HashMap<>();
@@ -19,4 +25,14 @@ public class HealthController {
         response.put("service", "Movie Wishlist API");
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    // Readiness probe: holds traffic back until the TMDB cache is warm or the warm-up deadline passed
+    @GetMapping("/ready")
+    public ResponseEntity<Map<String, Object>> readinessCheck() {
+        boolean ready = tmdbCacheWarmer.isReady();
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", ready ? "UP" : "WARMING_UP");
+        response.put("tmdbCacheWarm", tmdbCacheWarmer.isWarmedUp());
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+}
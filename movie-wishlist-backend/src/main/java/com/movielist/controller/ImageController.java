@@ -0,0 +1,103 @@
+package com.movielist.controller;
+
+import com.movielist.exception.ApiException;
+import com.movielist.exception.TmdbUnavailableException;
+import com.movielist.service.PosterCacheService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageController.class);
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // Tomcat request attributes for handing a file to the connector's sendfile support
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private PosterCacheService posterCacheService;
+
+    // Mirrors the TMDB image CDN layout ({size}/{file}), so the poster base URL can point either way
+    @RequestMapping(value = "/poster/{size}/{fileName:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void getPoster(@PathVariable String size,
+                          @PathVariable String fileName,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        Path file;
+        try {
+            file = posterCacheService.getPoster(size, fileName);
+        } catch (ApiException e) {
+            throw e;
+        } catch (TmdbUnavailableException e) {
+            logger.error("Error loading poster {}/{}: {}", size, fileName, e.getMessage());
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Failed to load poster: " + e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error loading poster {}/{}: {}", size, fileName, e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to load poster: " + e.getMessage());
+        }
+
+        long length = Files.size(file);
+        String etag = posterCacheService.etag(size, fileName, length);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(posterCacheService.contentType(fileName));
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        // Let the connector send the file straight from the page cache when it supports sendfile
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, target);
+            }
+        }
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -5,11 +5,20 @@ import com.movielist.entity.User;
 import com.movielist.exception.ApiException;
 import com.movielist.exception.ResourceNotFoundException;
 import com.movielist.payload.ApiResponse;
+import com.movielist.payload.EnrichmentStatusResponse;
+import com.movielist.payload.LibraryFilter;
+import com.movielist.payload.LibraryPageResponse;
 import com.movielist.payload.MovieRequest;
 import com.movielist.payload.MovieResponse;
+import com.movielist.payload.SimilarMovieResponse;
+import com.movielist.payload.TrendingMovieResponse;
 import com.movielist.repository.MovieRepository;
 import com.movielist.repository.UserRepository;
+import com.movielist.service.MatrixFactorizationService;
+import com.movielist.service.MovieEnrichmentService;
+import com.movielist.service.SimilarMovieIndex;
 import com.movielist.service.MovieService;
+import com.movielist.service.TrendingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,15 +45,31 @@ public class MovieController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MovieEnrichmentService movieEnrichmentService;
+
+    @Autowired
+    private MatrixFactorizationService matrixFactorizationService;
+
+    @Autowired
+    private SimilarMovieIndex similarMovieIndex;
+
+    @Autowired
+    private TrendingService trendingService;
+
     @GetMapping("/wishlist")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<MovieResponse>> getWishlistMovies() {
+    public ResponseEntity<List<MovieResponse>> getWishlistMovies(@RequestParam(required = false) String sort) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             User user = userRepository.findByUsername(auth.getName())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", auth.getName()));
             
             List<MovieResponse> wishlistMovies = movieService.getWishlistMovies(user);
+            if ("personal".equalsIgnoreCase(sort)) {
+                wishlistMovies = matrixFactorizationService.rankForUser(user.getId(), wishlistMovies,
+                        MovieResponse::getTmdbId, MovieResponse::getTitle);
+            }
             return ResponseEntity.ok(wishlistMovies);
         } catch (ResourceNotFoundException e) {
             logger.error("User not found: {}", e.getMessage());
@@ -74,6 +99,50 @@ public class MovieController {
         }
     }
 
+    @GetMapping("/library")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<LibraryPageResponse> getLibrary(LibraryFilter filter) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            User user = userRepository.findByUsername(auth.getName())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", auth.getName()));
+            
+            LibraryPageResponse library = movieService.getLibrary(user.getId(), filter);
+            return ResponseEntity.ok(library);
+        } catch (ResourceNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error getting filtered library: {}", e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get library: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/enrichment/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EnrichmentStatusResponse> getEnrichmentStatus() {
+        return ResponseEntity.ok(movieEnrichmentService.getStatus());
+    }
+
+    @PostMapping("/enrichment/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EnrichmentStatusResponse> runEnrichment() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(movieEnrichmentService.start());
+    }
+
+    @GetMapping("/trending")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<TrendingMovieResponse>> getTrendingMovies(
+            @RequestParam(defaultValue = "DAY") TrendingService.Window window,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(trendingService.getTrending(window, limit));
+        } catch (Exception e) {
+            logger.error("Error getting trending movies: {}", e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get trending movies: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<MovieResponse> getMovieById(@PathVariable Long id) {
@@ -89,6 +158,21 @@ public class MovieController {
         }
     }
 
+    @GetMapping("/{id}/similar")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<SimilarMovieResponse>> getSimilarMovies(@PathVariable Long id,
+                                                                       @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(similarMovieIndex.findSimilar(id, limit));
+        } catch (ResourceNotFoundException e) {
+            logger.error("Movie not found: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error getting similar movies for ID {}: {}", id, e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get similar movies: " + e.getMessage());
+        }
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<MovieResponse> addMovie(@Valid @RequestBody MovieRequest movieRequest) {
@@ -165,6 +249,20 @@ public class MovieController {
         }
     }
 
+    @GetMapping("/user/{userId}/library")
+    public ResponseEntity<LibraryPageResponse> getUserLibrary(@PathVariable Long userId, LibraryFilter filter) {
+        try {
+            LibraryPageResponse library = movieService.getLibrary(userId, filter);
+            return ResponseEntity.ok(library);
+        } catch (ResourceNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error getting filtered library for user ID {}: {}", userId, e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get user library: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<MovieResponse>> getUserMovies(@PathVariable Long userId, @RequestParam(required = false) Movie.Status status) {
         try {
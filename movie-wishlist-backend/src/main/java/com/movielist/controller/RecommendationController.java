@@ -0,0 +1,101 @@
+package com.movielist.controller;
+
+import com.movielist.entity.User;
+import com.movielist.exception.ApiException;
+import com.movielist.exception.ResourceNotFoundException;
+import com.movielist.payload.AlsEvaluationResponse;
+import com.movielist.payload.AlsModelStatusResponse;
+import com.movielist.payload.RecommendationIndexStatusResponse;
+import com.movielist.payload.RecommendationResponse;
+import com.movielist.repository.UserRepository;
+import com.movielist.service.ItemSimilarityIndex;
+import com.movielist.service.MatrixFactorizationService;
+import com.movielist.service.RecommendationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recommendations")
+public class RecommendationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationController.class);
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private ItemSimilarityIndex itemSimilarityIndex;
+
+    @Autowired
+    private MatrixFactorizationService matrixFactorizationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @GetMapping("/me")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<RecommendationResponse>> getMyRecommendations(
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            User user = userRepository.findByUsername(auth.getName())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", auth.getName()));
+
+            return ResponseEntity.ok(recommendationService.recommendForUser(user.getId(), limit));
+        } catch (ResourceNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error getting recommendations: {}", e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get recommendations: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/index/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecommendationIndexStatusResponse> getIndexStatus() {
+        return ResponseEntity.ok(itemSimilarityIndex.getStatus());
+    }
+
+    @PostMapping("/index/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecommendationIndexStatusResponse> rebuildIndex() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(itemSimilarityIndex.startRebuild());
+    }
+
+    @GetMapping("/ratings-model/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AlsModelStatusResponse> getRatingsModelStatus() {
+        return ResponseEntity.ok(matrixFactorizationService.getStatus());
+    }
+
+    @PostMapping("/ratings-model/train")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AlsModelStatusResponse> trainRatingsModel() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(matrixFactorizationService.startTraining());
+    }
+
+    @PostMapping("/ratings-model/evaluate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AlsEvaluationResponse> evaluateRatingsModel(
+            @RequestParam(defaultValue = "5000") int users,
+            @RequestParam(defaultValue = "2000") int items,
+            @RequestParam(defaultValue = "40") int ratingsPerUser,
+            @RequestParam(defaultValue = "42") long seed) {
+        try {
+            return ResponseEntity.ok(matrixFactorizationService.evaluate(users, items, ratingsPerUser, seed));
+        } catch (Exception e) {
+            logger.error("Error evaluating ratings model: {}", e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to evaluate ratings model: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.movielist.controller;
+
+import com.movielist.entity.User;
+import com.movielist.exception.ApiException;
+import com.movielist.exception.ResourceNotFoundException;
+import com.movielist.payload.SearchPageResponse;
+import com.movielist.repository.UserRepository;
+import com.movielist.service.SearchService;
+import com.movielist.service.TitleSuggestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TitleSuggestService titleSuggestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggestTitles(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<String> suggestions = titleSuggestService.suggest(q, limit);
+            return ResponseEntity.ok(suggestions);
+        } catch (Exception e) {
+            logger.error("Error suggesting titles for '{}': {}", q, e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to suggest titles: " + e.getMessage());
+        }
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<SearchPageResponse> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            User user = userRepository.findByUsername(auth.getName())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", auth.getName()));
+
+            SearchPageResponse results = searchService.search(user.getId(), q, cursor, size);
+            return ResponseEntity.ok(results);
+        } catch (ResourceNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            throw e;
+        } catch (ApiException e) {
+            logger.error("Invalid search request: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error searching for '{}': {}", q, e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to search: " + e.getMessage());
+        }
+    }
+}
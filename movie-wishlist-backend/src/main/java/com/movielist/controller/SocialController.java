@@ -4,21 +4,27 @@ import com.movielist.entity.User;
 import com.movielist.exception.ApiException;
 import com.movielist.exception.ResourceNotFoundException;
 import com.movielist.payload.ApiResponse;
+import com.movielist.payload.CommentPageResponse;
 import com.movielist.payload.CommentRequest;
 import com.movielist.payload.CommentResponse;
+import com.movielist.payload.LikesCountResponse;
 import com.movielist.repository.UserRepository;
+import com.movielist.service.LiveUpdateService;
 import com.movielist.service.SocialService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -33,16 +39,19 @@ public class SocialController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
     @PostMapping("/movies/{movieId}/like")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse> likeMovie(@PathVariable Long movieId) {
+    public ResponseEntity<LikesCountResponse> likeMovie(@PathVariable Long movieId) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             User user = userRepository.findByUsername(auth.getName())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", auth.getName()));
             
-            socialService.likeMovie(movieId, user);
-            return ResponseEntity.ok(new ApiResponse(true, "Movie liked successfully"));
+            Long likesCount = socialService.likeMovie(movieId, user);
+            return ResponseEntity.ok(new LikesCountResponse(movieId, likesCount));
         } catch (ResourceNotFoundException e) {
             logger.error("Resource not found: {}", e.getMessage());
             throw e;
@@ -54,14 +63,14 @@ public class SocialController {
 
     @DeleteMapping("/movies/{movieId}/unlike")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse> unlikeMovie(@PathVariable Long movieId) {
+    public ResponseEntity<LikesCountResponse> unlikeMovie(@PathVariable Long movieId) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             User user = userRepository.findByUsername(auth.getName())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", auth.getName()));
             
-            socialService.unlikeMovie(movieId, user);
-            return ResponseEntity.ok(new ApiResponse(true, "Movie unliked successfully"));
+            Long likesCount = socialService.unlikeMovie(movieId, user);
+            return ResponseEntity.ok(new LikesCountResponse(movieId, likesCount));
         } catch (ResourceNotFoundException e) {
             logger.error("Resource not found: {}", e.getMessage());
             throw e;
@@ -93,9 +102,14 @@ public class SocialController {
     }
 
     @GetMapping("/movies/{movieId}/comments")
-    public ResponseEntity<List<CommentResponse>> getMovieComments(@PathVariable Long movieId) {
+    public ResponseEntity<CommentPageResponse> getMovieComments(
+            @PathVariable Long movieId,
+            @RequestParam(required = false) Instant before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "0") int repliesPreview) {
         try {
-            List<CommentResponse> comments = socialService.getMovieComments(movieId);
+            CommentPageResponse comments = socialService.getMovieComments(movieId, before, beforeId, size, repliesPreview);
             return ResponseEntity.ok(comments);
         } catch (ResourceNotFoundException e) {
             logger.error("Movie not found: {}", e.getMessage());
@@ -106,6 +120,25 @@ public class SocialController {
         }
     }
 
+    @GetMapping(value = "/movies/{movieId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMovieUpdates(@PathVariable Long movieId) {
+        return liveUpdateService.subscribeToMovie(movieId);
+    }
+
+    @GetMapping("/comments/{commentId}/thread")
+    public ResponseEntity<List<CommentResponse>> getCommentThread(@PathVariable Long commentId) {
+        try {
+            List<CommentResponse> thread = socialService.getCommentThread(commentId);
+            return ResponseEntity.ok(thread);
+        } catch (ResourceNotFoundException e) {
+            logger.error("Comment not found: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error getting thread for comment with ID {}: {}", commentId, e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get comment thread: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/comments/{commentId}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse> deleteComment(@PathVariable Long commentId) {
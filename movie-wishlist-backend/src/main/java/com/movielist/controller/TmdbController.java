@@ -1,18 +1,37 @@
 package com.movielist.controller;
 
+import com.movielist.entity.User;
 import com.movielist.exception.ApiException;
+import com.movielist.exception.TmdbUnavailableException;
 import com.movielist.payload.MovieResponse;
+import com.movielist.payload.TmdbCacheStatsResponse;
+import com.movielist.payload.TmdbCatalogStatusResponse;
+import com.movielist.payload.TmdbMovieSummary;
+import com.movielist.payload.TmdbPageResponse;
+import com.movielist.payload.TmdbResilienceStatsResponse;
+import com.movielist.repository.UserRepository;
+import com.movielist.service.LibraryStatusService;
+import com.movielist.service.MatrixFactorizationService;
+import com.movielist.service.TmdbCatalogImporter;
 import com.movielist.service.TmdbService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/tmdb")
@@ -20,102 +39,199 @@ public class TmdbController {
 
     private static final Logger logger = LoggerFactory.getLogger(TmdbController.class);
 
+    private static final int MAX_PAGES_PER_REQUEST = 5;
+
     @Autowired
     private TmdbService tmdbService;
 
+    @Autowired
+    private TmdbCatalogImporter catalogImporter;
+
+    @Autowired
+    private LibraryStatusService libraryStatusService;
+
+    @Autowired
+    private MatrixFactorizationService matrixFactorizationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // The application executor; blocking follow-up work must not run on the TMDB HttpClient threads
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor applicationTaskExecutor;
+
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchMovies(
+    public CompletableFuture<ResponseEntity<TmdbPageResponse>> searchMovies(
             @RequestParam String query,
             @RequestParam(required = false) Integer page) {
-        try {
-            Map<String, Object> searchResults = tmdbService.searchMovies(query, page);
-            return ResponseEntity.ok(searchResults);
-        } catch (Exception e) {
-            logger.error("Error searching movies: {}", e.getMessage());
-            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to search movies: " + e.getMessage());
-        }
+        return tmdbService.searchMoviesAsync(query, page)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    logger.error("Error searching movies: {}", cause(e).getMessage());
+                    throw new ApiException(statusOf(e), "Failed to search movies: " + cause(e).getMessage());
+                });
     }
 
     @GetMapping("/movie/{movieId}")
-    public ResponseEntity<MovieResponse> getMovieDetails(@PathVariable Long movieId) {
-        try {
-            Map<String, Object> movieDetails = tmdbService.getMovieDetails(movieId);
-            MovieResponse movieResponse = tmdbService.convertTmdbMovieToMovieResponse(movieDetails);
-            return ResponseEntity.ok(movieResponse);
-        } catch (Exception e) {
-            logger.error("Error getting movie details for ID {}: {}", movieId, e.getMessage());
-            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get movie details: " + e.getMessage());
-        }
+    public CompletableFuture<ResponseEntity<MovieResponse>> getMovieDetails(@PathVariable Long movieId) {
+        return tmdbService.getMovieDetailsAsync(movieId)
+                .thenApply(movieDetails -> ResponseEntity.ok(tmdbService.convertTmdbMovieToMovieResponse(movieDetails)))
+                .exceptionally(e -> {
+                    logger.error("Error getting movie details for ID {}: {}", movieId, cause(e).getMessage());
+                    throw new ApiException(statusOf(e), "Failed to get movie details: " + cause(e).getMessage());
+                });
     }
 
     @GetMapping("/popular")
-    public ResponseEntity<Map<String, Object>> getPopularMovies(
-            @RequestParam(required = false) Integer page) {
-        try {
-            Map<String, Object> popularMovies = tmdbService.getPopularMovies(page);
-            return ResponseEntity.ok(popularMovies);
-        } catch (Exception e) {
-            logger.error("Error getting popular movies: {}", e.getMessage());
-            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get popular movies: " + e.getMessage());
-        }
+    public CompletableFuture<ResponseEntity<TmdbPageResponse>> getPopularMovies(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String sort) {
+        Long userId = "personal".equalsIgnoreCase(sort) ? currentUserId() : null;
+        return tmdbService.getPopularMoviesAsync(page)
+                .thenApply(movies -> ResponseEntity.ok(personalize(movies, userId)))
+                .exceptionally(e -> {
+                    logger.error("Error getting popular movies: {}", cause(e).getMessage());
+                    throw new ApiException(statusOf(e), "Failed to get popular movies: " + cause(e).getMessage());
+                });
     }
 
     @GetMapping("/top-rated")
-    public ResponseEntity<Map<String, Object>> getTopRatedMovies(
-            @RequestParam(required = false) Integer page) {
-        try {
-            Map<String, Object> topRatedMovies = tmdbService.getTopRatedMovies(page);
-            return ResponseEntity.ok(topRatedMovies);
-        } catch (Exception e) {
-            logger.error("Error getting top-rated movies: {}", e.getMessage());
-            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get top-rated movies: " + e.getMessage());
-        }
+    public CompletableFuture<ResponseEntity<TmdbPageResponse>> getTopRatedMovies(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String sort) {
+        Long userId = "personal".equalsIgnoreCase(sort) ? currentUserId() : null;
+        return tmdbService.getTopRatedMoviesAsync(page)
+                .thenApply(movies -> ResponseEntity.ok(personalize(movies, userId)))
+                .exceptionally(e -> {
+                    logger.error("Error getting top-rated movies: {}", cause(e).getMessage());
+                    throw new ApiException(statusOf(e), "Failed to get top-rated movies: " + cause(e).getMessage());
+                });
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<Map<String, Object>> getUpcomingMovies(
-            @RequestParam(required = false) Integer page) {
-        try {
-            Map<String, Object> upcomingMovies = tmdbService.getUpcomingMovies(page);
-            return ResponseEntity.ok(upcomingMovies);
-        } catch (Exception e) {
-            logger.error("Error getting upcoming movies: {}", e.getMessage());
-            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get upcoming movies: " + e.getMessage());
-        }
+    public CompletableFuture<ResponseEntity<TmdbPageResponse>> getUpcomingMovies(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String sort) {
+        Long userId = "personal".equalsIgnoreCase(sort) ? currentUserId() : null;
+        return tmdbService.getUpcomingMoviesAsync(page)
+                .thenApply(movies -> ResponseEntity.ok(personalize(movies, userId)))
+                .exceptionally(e -> {
+                    logger.error("Error getting upcoming movies: {}", cause(e).getMessage());
+                    throw new ApiException(statusOf(e), "Failed to get upcoming movies: " + cause(e).getMessage());
+                });
     }
 
     @GetMapping("/movie/{movieId}/recommendations")
-    public ResponseEntity<Map<String, Object>> getMovieRecommendations(
+    public CompletableFuture<ResponseEntity<TmdbPageResponse>> getMovieRecommendations(
             @PathVariable Long movieId,
             @RequestParam(required = false) Integer page) {
+        return tmdbService.getMovieRecommendationsAsync(movieId, page)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    logger.error("Error getting movie recommendations for ID {}: {}", movieId, cause(e).getMessage());
+                    throw new ApiException(statusOf(e), "Failed to get movie recommendations: " + cause(e).getMessage());
+                });
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TmdbCacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(tmdbService.getCacheStats());
+    }
+
+    @PostMapping("/catalog/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TmdbCatalogStatusResponse> importCatalog(
+            @RequestParam(required = false) String file,
+            @RequestParam(defaultValue = "true") boolean full) {
         try {
-            Map<String, Object> recommendations = tmdbService.getMovieRecommendations(movieId, page);
-            return ResponseEntity.ok(recommendations);
+            TmdbCatalogStatusResponse status = catalogImporter.startImport(file, full);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("Error getting movie recommendations for ID {}: {}", movieId, e.getMessage());
-            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get movie recommendations: " + e.getMessage());
+            logger.error("Error starting catalog import: {}", e.getMessage());
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to start catalog import: " + e.getMessage());
         }
     }
 
+    @GetMapping("/resilience/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TmdbResilienceStatsResponse> getResilienceStats() {
+        return ResponseEntity.ok(tmdbService.getResilienceStats());
+    }
+
+    @GetMapping("/catalog/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TmdbCatalogStatusResponse> getCatalogStatus() {
+        return ResponseEntity.ok(catalogImporter.getStatus());
+    }
+
     @GetMapping("/search/formatted")
-    public ResponseEntity<List<MovieResponse>> searchMoviesFormatted(
+    public CompletableFuture<ResponseEntity<List<MovieResponse>>> searchMoviesFormatted(
             @RequestParam String query,
-            @RequestParam(required = false) Integer page) {
-        try {
-            Map<String, Object> searchResults = tmdbService.searchMovies(query, page);
-            List<MovieResponse> formattedResults = new ArrayList<>();
-            
-            if (searchResults.containsKey("results") && searchResults.get("results") instanceof List) {
-                List<Map<String, Object>> results = (List<Map<String, Object>>) searchResults.get("results");
-                for (Map<String, Object> movie : results) {
-                    formattedResults.add(tmdbService.convertTmdbMovieToMovieResponse(movie));
-                }
-            }
-            
-            return ResponseEntity.ok(formattedResults);
-        } catch (Exception e) {
-            logger.error("Error searching formatted movies: {}", e.getMessage());
-            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to search formatted movies: " + e.getMessage());
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "1") int pages) {
+        Long userId = currentUserId();
+
+        // "Show more" asks for several pages at once; they are fetched concurrently
+        int firstPage = page != null ? Math.max(page, 1) : 1;
+        int pageCount = Math.max(1, Math.min(pages, MAX_PAGES_PER_REQUEST));
+        List<CompletableFuture<TmdbPageResponse>> fetches = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            fetches.add(tmdbService.searchMoviesAsync(query, firstPage + i));
         }
+
+        return CompletableFuture.allOf(fetches.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(ignored -> {
+                    List<MovieResponse> formattedResults = new ArrayList<>();
+                    Set<Long> seen = new HashSet<>();
+
+                    for (CompletableFuture<TmdbPageResponse> fetch : fetches) {
+                        TmdbPageResponse searchResults = fetch.join();
+                        if (searchResults.getResults() == null) {
+                            continue;
+                        }
+                        for (TmdbMovieSummary movie : searchResults.getResults()) {
+                            // TMDB pages can shift between requests, so a movie may show up on two of them
+                            if (seen.add(movie.getId())) {
+                                formattedResults.add(tmdbService.convertTmdbMovieToMovieResponse(movie));
+                            }
+                        }
+                    }
+
+                    libraryStatusService.annotate(formattedResults, userId);
+                    return ResponseEntity.ok(formattedResults);
+                }, applicationTaskExecutor)
+                .exceptionally(e -> {
+                    logger.error("Error searching formatted movies: {}", cause(e).getMessage());
+                    throw new ApiException(statusOf(e), "Failed to search formatted movies: " + cause(e).getMessage());
+                });
+    }
+
+    // Resolved on the request thread; the security context is not available where futures complete
+    private Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? null : userRepository.findByUsername(auth.getName()).map(User::getId).orElse(null);
+    }
+
+    // Cached pages are shared between requests, so the reordering goes into a copy
+    private TmdbPageResponse personalize(TmdbPageResponse movies, Long userId) {
+        if (userId == null || movies.getResults() == null) {
+            return movies;
+        }
+        List<TmdbMovieSummary> ranked = matrixFactorizationService.rankForUser(userId, movies.getResults(),
+                TmdbMovieSummary::getId, TmdbMovieSummary::getTitle);
+        return new TmdbPageResponse(movies.getPage(), ranked, movies.getTotalPages(), movies.getTotalResults());
+    }
+
+    // TMDB being down or throttled is a 503 so clients can retry, anything else stays a 500
+    private HttpStatus statusOf(Throwable e) {
+        return cause(e) instanceof TmdbUnavailableException ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private Throwable cause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
 }
\ No newline at end of file
@@ -4,18 +4,26 @@ import com.movielist.entity.User;
 import com.movielist.exception.ApiException;
 import com.movielist.exception.ResourceNotFoundException;
 import com.movielist.payload.ApiResponse;
+import com.movielist.payload.FollowSuggestionResponse;
+import com.movielist.payload.SimilarUserResponse;
+import com.movielist.payload.StreamTokenResponse;
 import com.movielist.payload.UserProfileRequest;
 import com.movielist.payload.UserProfileResponse;
+import com.movielist.repository.UserRepository;
+import com.movielist.security.JwtTokenProvider;
+import com.movielist.service.LiveUpdateService;
 import com.movielist.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -29,6 +37,15 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
     @GetMapping("/me")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<UserProfileResponse> getCurrentUserProfile() {
@@ -45,6 +62,25 @@ public class UserController {
         }
     }
 
+    // EventSource cannot send the bearer header, so streams are opened with ?token= from here
+    @PostMapping("/me/stream-token")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamTokenResponse> createStreamToken() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String token = tokenProvider.generateStreamToken(auth.getName());
+        return ResponseEntity.ok(new StreamTokenResponse(token, tokenProvider.getStreamTokenExpirationInMs()));
+    }
+
+    @GetMapping(value = "/me/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public SseEmitter streamCurrentUserUpdates() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        User user = userRepository.findByUsername(auth.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("User", "username", auth.getName()));
+
+        return liveUpdateService.subscribeToUser(user.getId());
+    }
+
     @GetMapping("/{username}")
     public ResponseEntity<UserProfileResponse> getUserProfile(@PathVariable String username) {
         try {
@@ -142,6 +178,40 @@ public class UserController {
         }
     }
 
+    @GetMapping("/suggestions")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<FollowSuggestionResponse>> getFollowSuggestions(
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            List<FollowSuggestionResponse> suggestions = userService.getFollowSuggestions(auth.getName(), limit);
+            return ResponseEntity.ok(suggestions);
+        } catch (ResourceNotFoundException e) {
+            logger.error("User not found when retrieving follow suggestions", e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error retrieving follow suggestions", e);
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Error retrieving follow suggestions");
+        }
+    }
+
+    @GetMapping("/similar")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<SimilarUserResponse>> getSimilarUsers(
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            List<SimilarUserResponse> similarUsers = userService.getSimilarUsers(auth.getName(), limit);
+            return ResponseEntity.ok(similarUsers);
+        } catch (ResourceNotFoundException e) {
+            logger.error("User not found when retrieving similar users", e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error retrieving similar users", e);
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Error retrieving similar users");
+        }
+    }
+
     @GetMapping("/leaderboard")
     public ResponseEntity<List<UserProfileResponse>> getLeaderboard() {
         try {
@@ -0,0 +1,58 @@
+package com.movielist.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "activity_events", indexes = {
+        @Index(name = "idx_activity_events_pull", columnList = "fanned_out, actor_id, id"),
+        @Index(name = "idx_activity_events_actor", columnList = "actor_id, id")
+})
+public class ActivityEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+
+    @Column(name = "actor_username", nullable = false)
+    private String actorUsername;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    @Column(name = "movie_title")
+    private String movieTitle;
+
+    @Column(length = 1000)
+    private String detail;
+
+    // False for actors with too many followers; their events are pulled at read time
+    @Column(name = "fanned_out", nullable = false)
+    private Boolean fannedOut;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    public enum Type {
+        MOVIE_ADDED, MOVIE_WATCHED, MOVIE_RATED, COMMENTED, BADGE_EARNED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_movie_depth_created", columnList = "movie_id, depth, created_at, id"),
+        @Index(name = "idx_comments_thread_created", columnList = "thread_id, created_at, id")
+})
 public class Comment {
 
     @Id
@@ -32,6 +35,24 @@ public class Comment {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // Id of the top-level comment a reply belongs to; null for top-level comments
+    @Column(name = "thread_id")
+    private Long threadId;
+
+    @Column(columnDefinition = "integer default 0")
+    private Integer depth = 0;
+
+    // Materialized path of ancestor ids from the thread root down to the parent, e.g. "12/45/"
+    @Column(length = 1000, columnDefinition = "varchar(1000) default ''")
+    private String path = "";
+
+    // Number of replies in the whole thread, maintained on the top-level comment
+    @Column(name = "reply_count", columnDefinition = "integer default 0")
+    private Integer replyCount = 0;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,37 @@
+package com.movielist.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+// Hibernate orders the composite primary key columns by name, (event_id, owner_id), so timeline
+// reads need their own index led by owner_id
+@Table(name = "feed_entries", indexes = {
+        @Index(name = "idx_feed_entries_owner_event", columnList = "owner_id, event_id")
+})
+@IdClass(FeedEntry.FeedEntryId.class)
+public class FeedEntry {
+
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FeedEntryId implements Serializable {
+        private Long ownerId;
+        private Long eventId;
+    }
+}
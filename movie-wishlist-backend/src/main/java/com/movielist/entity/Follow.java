@@ -10,7 +10,10 @@ import jakarta.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "follows")
+@Table(name = "follows", indexes = {
+        @Index(name = "idx_follows_follower_following", columnList = "follower_id, following_id"),
+        @Index(name = "idx_follows_following_follower", columnList = "following_id, follower_id")
+})
 public class Follow {
 
     @Id
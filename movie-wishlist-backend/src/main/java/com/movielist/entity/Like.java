@@ -10,7 +10,11 @@ import jakarta.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "likes")
+@Table(name = "likes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_likes_user_movie", columnNames = {"user_id", "movie_id"})
+}, indexes = {
+        @Index(name = "idx_likes_movie", columnList = "movie_id")
+})
 public class Like {
 
     @Id
@@ -13,7 +13,10 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "movies")
+@Table(name = "movies", indexes = {
+        @Index(name = "idx_movies_tmdb_id", columnList = "tmdb_id"),
+        @Index(name = "idx_movies_user", columnList = "user_id")
+})
 public class Movie {
 
     @Id
@@ -33,6 +36,13 @@ public class Movie {
     @Column(name = "poster_url")
     private String posterUrl;
 
+    @Column(name = "tmdb_id")
+    private Long tmdbId;
+
+    // Set when background enrichment last tried to fill in metadata from TMDB
+    @Column(name = "enrichment_attempted_at")
+    private Instant enrichmentAttemptedAt;
+
     @Enumerated(EnumType.STRING)
     private Status status;
 
@@ -41,6 +51,13 @@ public class Movie {
     @Column(length = 1000)
     private String review;
     
+    // Maintained in batches by LikeCounterBuffer, never by entity updates; pending deltas live in memory until flushed
+    @Column(name = "likes_count", updatable = false)
+    private Long likesCount;
+
+    @Column(name = "likes_count_dirty", insertable = false, updatable = false)
+    private Boolean likesCountDirty;
+
     @Column(name = "created_at")
     private Instant createdAt;
     
@@ -63,6 +80,9 @@ public class Movie {
     
     @PrePersist
     protected void onCreate() {
+        if (likesCount == null) {
+            likesCount = 0L;
+        }
         createdAt = Instant.now();
         updatedAt = Instant.now();
     }
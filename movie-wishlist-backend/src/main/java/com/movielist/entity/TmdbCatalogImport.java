@@ -0,0 +1,31 @@
+package com.movielist.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// One row per completed full import of a details export; local search only runs once one exists
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tmdb_catalog_imports")
+public class TmdbCatalogImport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    // Lines that carried full movie details rather than just an id
+    @Column(name = "detailed_movies")
+    private Long detailedMovies;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
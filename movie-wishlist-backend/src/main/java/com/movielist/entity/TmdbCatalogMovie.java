@@ -0,0 +1,71 @@
+package com.movielist.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Local mirror of TMDB movie metadata, loaded from export files by TmdbCatalogImporter
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tmdb_catalog", indexes = {
+        @Index(name = "idx_tmdb_catalog_popularity", columnList = "popularity")
+})
+public class TmdbCatalogMovie {
+
+    @Id
+    @Column(name = "tmdb_id")
+    private Long tmdbId;
+
+    private String title;
+
+    @Column(name = "original_title")
+    private String originalTitle;
+
+    @Column(length = 4000)
+    private String overview;
+
+    private String tagline;
+
+    @Column(name = "release_date")
+    private String releaseDate;
+
+    private Integer runtime;
+
+    // Comma-separated genre names, first one is the primary genre
+    private String genres;
+
+    @Column(name = "poster_path")
+    private String posterPath;
+
+    @Column(name = "backdrop_path")
+    private String backdropPath;
+
+    @Column(name = "imdb_id")
+    private String imdbId;
+
+    private Double popularity;
+
+    @Column(name = "vote_average")
+    private Double voteAverage;
+
+    @Column(name = "vote_count")
+    private Integer voteCount;
+
+    private Boolean adult;
+
+    // False for rows that only came from an ID export (id, original title, popularity)
+    @Column(name = "has_details")
+    private Boolean hasDetails;
+
+    // Hash of the last imported line, so unchanged rows are skipped on the next daily import
+    @Column(name = "content_hash")
+    private Long contentHash;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
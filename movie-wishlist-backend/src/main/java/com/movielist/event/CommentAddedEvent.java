@@ -0,0 +1,12 @@
+package com.movielist.event;
+
+import com.movielist.payload.CommentResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CommentAddedEvent {
+    private final Long movieOwnerId;
+    private final CommentResponse comment;
+}
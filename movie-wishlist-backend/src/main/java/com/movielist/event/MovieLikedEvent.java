@@ -0,0 +1,13 @@
+package com.movielist.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published only when a like was actually added or removed, unlike MovieLikesChangedEvent
+@Getter
+@AllArgsConstructor
+public class MovieLikedEvent {
+    private final Long userId;
+    private final Long movieId;
+    private final boolean liked;
+}
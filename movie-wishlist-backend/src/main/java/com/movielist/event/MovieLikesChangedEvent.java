@@ -0,0 +1,11 @@
+package com.movielist.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MovieLikesChangedEvent {
+    private final Long movieId;
+    private final Long likesCount;
+}
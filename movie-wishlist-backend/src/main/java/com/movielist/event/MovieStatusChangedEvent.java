@@ -0,0 +1,14 @@
+package com.movielist.event;
+
+import com.movielist.entity.Movie;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published when a movie is added to a wishlist (WISHLIST) or marked as watched (WATCHED)
+@Getter
+@AllArgsConstructor
+public class MovieStatusChangedEvent {
+    private final Long userId;
+    private final Long movieId;
+    private final Movie.Status status;
+}
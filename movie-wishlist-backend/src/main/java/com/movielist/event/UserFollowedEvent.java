@@ -0,0 +1,12 @@
+package com.movielist.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserFollowedEvent {
+    private final Long followerId;
+    private final String followerUsername;
+    private final Long followingId;
+}
@@ -0,0 +1,17 @@
+package com.movielist.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// TMDB is unreachable or failing (timeouts, 5xx, 429, open circuit), as opposed to rejecting a bad request
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TmdbUnavailableException extends RuntimeException {
+
+    public TmdbUnavailableException(String message) {
+        super(message);
+    }
+
+    public TmdbUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,21 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlsEvaluationResponse {
+    private int users;
+    private int items;
+    private int trainRatings;
+    private int testRatings;
+    private int factors;
+    private int iterations;
+    private long trainMillis;
+    private double rmse;
+    // RMSE of always predicting the mean rating, for comparison
+    private double baselineRmse;
+}
@@ -0,0 +1,21 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlsModelStatusResponse {
+    private boolean training;
+    private Instant trainedAt;
+    private long trainMillis;
+    private int users;
+    private int items;
+    private int ratings;
+    private int factors;
+    private String error;
+}
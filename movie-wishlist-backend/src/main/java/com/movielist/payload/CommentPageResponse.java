@@ -0,0 +1,18 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageResponse {
+    private List<CommentResponse> comments;
+    // Pass as 'before' and 'beforeId' to fetch the next page, both null when exhausted
+    private Instant nextBefore;
+    private Long nextBeforeId;
+}
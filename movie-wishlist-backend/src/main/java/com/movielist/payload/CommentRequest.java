@@ -15,4 +15,6 @@ public class CommentRequest {
     @NotBlank
     @Size(min = 1, max = 500)
     private String content;
+
+    private Long parentId; // Set when replying to another comment
 }
\ No newline at end of file
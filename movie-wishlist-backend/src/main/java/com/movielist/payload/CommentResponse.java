@@ -5,6 +5,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -18,4 +21,16 @@ public class CommentResponse {
     private String userProfilePictureUrl;
     private Long movieId;
     private String movieTitle;
+    private Long parentId;
+    private Integer depth;
+    private Integer replyCount;
+    private List<CommentResponse> replies; // Preview of the first replies, only filled when requested
+
+    // Used by JPQL constructor projections, which select the entity's LocalDateTime column
+    public CommentResponse(Long id, String content, LocalDateTime createdAt, Long userId, String username,
+                           String userProfilePictureUrl, Long movieId, String movieTitle, Long parentId,
+                           Integer depth, Integer replyCount) {
+        this(id, content, createdAt != null ? createdAt.atZone(ZoneId.systemDefault()).toInstant() : null,
+                userId, username, userProfilePictureUrl, movieId, movieTitle, parentId, depth, replyCount, null);
+    }
 }
\ No newline at end of file
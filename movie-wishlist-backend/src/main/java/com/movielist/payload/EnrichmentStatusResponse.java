@@ -0,0 +1,24 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrichmentStatusResponse {
+    private boolean running;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long scanned;
+    private long enriched;
+    private long notFound;
+    private long failed;
+    private Long lastMovieId;
+    // Set when a pass stopped early because TMDB was unavailable or rate limited
+    private String pausedReason;
+    private long remaining;
+}
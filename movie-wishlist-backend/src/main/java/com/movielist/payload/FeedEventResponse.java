@@ -0,0 +1,22 @@
+package com.movielist.payload;
+
+import com.movielist.entity.ActivityEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedEventResponse {
+    private Long id;
+    private ActivityEvent.Type type;
+    private Long actorId;
+    private String actorUsername;
+    private Long movieId;
+    private String movieTitle;
+    private String detail;
+    private Instant createdAt;
+}
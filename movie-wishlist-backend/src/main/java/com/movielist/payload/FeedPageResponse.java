@@ -0,0 +1,15 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedPageResponse {
+    private List<FeedEventResponse> events;
+    private Long nextCursor; // Pass as 'before' to fetch the next page, null when exhausted
+}
@@ -0,0 +1,19 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowSuggestionResponse {
+    private Long id;
+    private String username;
+    private String profilePictureUrl;
+    private Integer mutualFollowsCount;
+    private List<String> sharedGenres;
+    private Double score;
+}
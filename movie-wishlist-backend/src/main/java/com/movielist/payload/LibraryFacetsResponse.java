@@ -0,0 +1,18 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LibraryFacetsResponse {
+    // Each facet counts matches under every filter except its own, so selecting a value doesn't hide the others
+    private Map<String, Long> genres;
+    private Map<Integer, Long> decades;
+    private Map<Integer, Long> ratings;
+    private Map<String, Long> statuses;
+}
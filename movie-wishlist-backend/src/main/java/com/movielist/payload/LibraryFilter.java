@@ -0,0 +1,18 @@
+package com.movielist.payload;
+
+import com.movielist.entity.Movie;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LibraryFilter {
+    private List<String> genre;
+    private Integer yearFrom;
+    private Integer yearTo;
+    private Integer ratingMin;
+    private Integer ratingMax;
+    private Movie.Status status;
+    private int page = 0;
+    private int size = 20;
+}
@@ -0,0 +1,18 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LibraryPageResponse {
+    private List<MovieResponse> movies;
+    private Long total;
+    private Integer page;
+    private Integer size;
+    private LibraryFacetsResponse facets;
+}
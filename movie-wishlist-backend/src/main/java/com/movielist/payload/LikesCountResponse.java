@@ -0,0 +1,13 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikesCountResponse {
+    private Long movieId;
+    private Long likesCount;
+}
@@ -17,6 +17,9 @@ public class MovieRequest {
     private Integer runtime;
     
     private String posterUrl;
+
+    // Set when the movie was picked from TMDB search results
+    private Long tmdbId;
     
     private Integer rating;
     
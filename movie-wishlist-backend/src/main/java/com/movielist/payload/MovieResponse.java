@@ -15,6 +15,7 @@ public class MovieResponse {
     private Integer releaseYear;
     private Integer runtime;
     private String posterUrl;
+    private Long tmdbId;
     private Movie.Status status;
     private Integer rating;
     private String review;
@@ -0,0 +1,13 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewFollowerResponse {
+    private Long followerId;
+    private String followerUsername;
+}
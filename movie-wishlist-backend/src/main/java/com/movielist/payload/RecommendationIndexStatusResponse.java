@@ -0,0 +1,20 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationIndexStatusResponse {
+    private boolean building;
+    private Instant builtAt;
+    private long buildMillis;
+    private int items;
+    private int users;
+    private int interactions;
+    private int pendingLikes;
+}
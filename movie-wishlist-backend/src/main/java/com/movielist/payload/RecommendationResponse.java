@@ -0,0 +1,19 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationResponse {
+    private Long tmdbId;
+    private String title;
+    private String genre;
+    private Integer releaseYear;
+    private String posterUrl;
+    private double score;
+    // Title from the user's own library that contributed most to this recommendation
+    private String becauseOf;
+}
@@ -0,0 +1,15 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPageResponse {
+    private List<SearchResultResponse> results;
+    private String nextCursor; // Pass as 'cursor' to fetch the next page, null when exhausted
+}
@@ -0,0 +1,17 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultResponse {
+    private String type; // MOVIE or COMMENT
+    private Long id;
+    private Long movieId;
+    private String movieTitle;
+    private String snippet; // HTML-escaped matched text with terms wrapped in <mark> tags
+    private Double rank;
+}
@@ -0,0 +1,17 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarMovieResponse {
+    private Long tmdbId;
+    private String title;
+    private String genre;
+    private Integer releaseYear;
+    private String posterUrl;
+    private double similarity;
+}
@@ -0,0 +1,16 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarUserResponse {
+    private Long id;
+    private String username;
+    private String profilePictureUrl;
+    // Estimated Jaccard similarity of the two users' watched movies
+    private Double similarity;
+}
@@ -0,0 +1,23 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TmdbCacheStatsResponse {
+    private int entries;
+    private long hits;
+    private long staleHits;
+    private long diskHits;
+    private long misses;
+    private long refreshFailures;
+    // Expired entries served because TMDB was unavailable
+    private long fallbacks;
+    private double hitRate;
+    private boolean diskEnabled;
+    private long upstreamRequests;
+    private long coalescedRequests;
+}
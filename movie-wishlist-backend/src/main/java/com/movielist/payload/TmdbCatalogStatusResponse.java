@@ -0,0 +1,28 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TmdbCatalogStatusResponse {
+    private String file;
+    private boolean fullSnapshot;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long linesRead;
+    private long written;
+    private long unchanged;
+    private long invalid;
+    private long removed;
+    private String error;
+    private boolean running;
+    private long catalogSize;
+    private long localHits;
+    private long localMisses;
+    private Instant lastCompletedImport;
+}
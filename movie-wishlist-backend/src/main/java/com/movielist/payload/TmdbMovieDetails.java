@@ -0,0 +1,48 @@
+package com.movielist.payload;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TmdbMovieDetails {
+    private Long id;
+    private String title;
+
+    @JsonProperty("original_title")
+    private String originalTitle;
+
+    private String overview;
+    private String tagline;
+
+    @JsonProperty("release_date")
+    private String releaseDate;
+
+    private Integer runtime;
+
+    @JsonProperty("poster_path")
+    private String posterPath;
+
+    @JsonProperty("backdrop_path")
+    private String backdropPath;
+
+    private List<TmdbGenre> genres;
+
+    @JsonProperty("imdb_id")
+    private String imdbId;
+
+    private Double popularity;
+
+    @JsonProperty("vote_average")
+    private Double voteAverage;
+
+    @JsonProperty("vote_count")
+    private Integer voteCount;
+
+    private Boolean adult;
+}
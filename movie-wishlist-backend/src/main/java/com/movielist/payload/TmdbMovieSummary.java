@@ -0,0 +1,38 @@
+package com.movielist.payload;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One entry of a TMDB search or list page; property names keep TMDB's snake_case wire format
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TmdbMovieSummary {
+    private Long id;
+    private String title;
+    private String overview;
+
+    @JsonProperty("release_date")
+    private String releaseDate;
+
+    @JsonProperty("poster_path")
+    private String posterPath;
+
+    @JsonProperty("backdrop_path")
+    private String backdropPath;
+
+    @JsonProperty("genre_ids")
+    private List<Long> genreIds;
+
+    private Double popularity;
+
+    @JsonProperty("vote_average")
+    private Double voteAverage;
+
+    @JsonProperty("vote_count")
+    private Integer voteCount;
+}
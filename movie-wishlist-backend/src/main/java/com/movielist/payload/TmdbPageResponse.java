@@ -0,0 +1,22 @@
+package com.movielist.payload;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TmdbPageResponse {
+    private Integer page;
+    private List<TmdbMovieSummary> results;
+
+    @JsonProperty("total_pages")
+    private Integer totalPages;
+
+    @JsonProperty("total_results")
+    private Integer totalResults;
+}
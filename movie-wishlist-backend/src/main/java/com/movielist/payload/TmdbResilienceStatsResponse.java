@@ -0,0 +1,23 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TmdbResilienceStatsResponse {
+    private String circuitState;
+    private int consecutiveFailures;
+    private long circuitOpenedCount;
+    private double availableTokens;
+    private int activeCalls;
+    private int maxConcurrentCalls;
+    private long calls;
+    private long failures;
+    private long rejectedByCircuit;
+    private long rejectedByRateLimit;
+    private long delayedByRateLimit;
+    private long rejectedByBulkhead;
+}
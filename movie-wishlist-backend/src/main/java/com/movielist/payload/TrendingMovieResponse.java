@@ -0,0 +1,18 @@
+package com.movielist.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingMovieResponse {
+    private Long tmdbId;
+    private String title;
+    private String genre;
+    private Integer releaseYear;
+    private String posterUrl;
+    // Decayed, weighted count of likes, comments, adds and watches in the requested window
+    private Double score;
+}
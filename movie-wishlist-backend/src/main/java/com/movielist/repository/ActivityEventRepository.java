@@ -0,0 +1,17 @@
+package com.movielist.repository;
+
+import com.movielist.entity.ActivityEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ActivityEventRepository extends JpaRepository<ActivityEvent, Long> {
+
+    @Query("SELECT e.id FROM ActivityEvent e WHERE e.fannedOut = false AND e.id < :before " +
+            "AND e.actorId IN (SELECT f.followingId FROM Follow f WHERE f.followerId = :userId) ORDER BY e.id DESC")
+    List<Long> findPulledEventIds(Long userId, Long before, Pageable pageable);
+}
@@ -3,10 +3,16 @@ package com.movielist.repository;
 import com.movielist.entity.Comment;
 import com.movielist.entity.Movie;
 import com.movielist.entity.User;
+import com.movielist.payload.CommentResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,4 +25,44 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     Long countCommentsByMovieId(Long movieId);
 
     Long countByUser(User user);
+
+    @Query("SELECT new com.movielist.payload.CommentResponse(c.id, c.content, c.createdAt, u.id, u.username, " +
+            "u.profilePictureUrl, m.id, m.title, c.parentId, c.depth, c.replyCount) FROM Comment c " +
+            "JOIN c.user u JOIN c.movie m " +
+            "WHERE m.id = :movieId AND c.depth = 0 ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentResponse> findPageByMovieId(Long movieId, Pageable pageable);
+
+    @Query("SELECT new com.movielist.payload.CommentResponse(c.id, c.content, c.createdAt, u.id, u.username, " +
+            "u.profilePictureUrl, m.id, m.title, c.parentId, c.depth, c.replyCount) FROM Comment c " +
+            "JOIN c.user u JOIN c.movie m " +
+            "WHERE m.id = :movieId AND c.depth = 0 AND (c.createdAt < :beforeCreatedAt " +
+            "OR (c.createdAt = :beforeCreatedAt AND c.id < :beforeId)) ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentResponse> findPageByMovieIdBefore(Long movieId, LocalDateTime beforeCreatedAt, Long beforeId,
+                                                  Pageable pageable);
+
+    // One range scan on (thread_id, created_at) returns a whole thread or, with a deeper prefix, a subtree
+    @Query("SELECT new com.movielist.payload.CommentResponse(c.id, c.content, c.createdAt, u.id, u.username, " +
+            "u.profilePictureUrl, m.id, m.title, c.parentId, c.depth, c.replyCount) FROM Comment c " +
+            "JOIN c.user u JOIN c.movie m " +
+            "WHERE c.threadId = :threadId AND c.path LIKE :pathPrefix ORDER BY c.createdAt, c.id")
+    List<CommentResponse> findSubtree(Long threadId, String pathPrefix, Pageable pageable);
+
+    // First N replies of each given thread in a single query; each thread is a bounded index range scan
+    @Query(value = "SELECT r.id, r.content, r.created_at, r.user_id, u.username, u.profile_picture_url, " +
+            "r.parent_id, r.depth, r.reply_count, r.thread_id FROM comments t CROSS JOIN LATERAL (" +
+            "SELECT c.* FROM comments c WHERE c.thread_id = t.id ORDER BY c.created_at, c.id LIMIT :perThread) r " +
+            "JOIN users u ON u.id = r.user_id WHERE t.id IN (:threadIds) " +
+            "ORDER BY r.thread_id, r.created_at, r.id",
+            nativeQuery = true)
+    List<Object[]> findReplyPreviews(Collection<Long> threadIds, int perThread);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + :delta WHERE c.id = :commentId")
+    int adjustReplyCount(Long commentId, int delta);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Comment c WHERE c.threadId = :threadId AND c.path LIKE :pathPrefix")
+    int deleteSubtree(Long threadId, String pathPrefix);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.movielist.repository;
+
+import com.movielist.entity.FeedEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, FeedEntry.FeedEntryId> {
+
+    @Query("SELECT fe.eventId FROM FeedEntry fe WHERE fe.ownerId = :ownerId AND fe.eventId < :before ORDER BY fe.eventId DESC")
+    List<Long> findEventIds(Long ownerId, Long before, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO feed_entries (owner_id, event_id) " +
+            "SELECT f.follower_id, :eventId FROM follows f WHERE f.following_id = :actorId " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int fanOut(Long eventId, Long actorId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO feed_entries (owner_id, event_id) " +
+            "SELECT :ownerId, e.id FROM activity_events e WHERE e.actor_id = :actorId AND e.fanned_out = true " +
+            "ORDER BY e.id DESC LIMIT :limit ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfill(Long ownerId, Long actorId, int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM feed_entries fe USING activity_events e " +
+            "WHERE fe.event_id = e.id AND fe.owner_id = :ownerId AND e.actor_id = :actorId", nativeQuery = true)
+    int removeActor(Long ownerId, Long actorId);
+}
@@ -6,6 +6,7 @@ import com.movielist.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 import java.util.List;
@@ -22,4 +23,20 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     Long countLikesByMovieId(Long movieId);
 
     Long countByUser(User user);
+
+    // Each returns one row of (persisted likes_count, rows changed), or no row if the movie doesn't exist
+    @Transactional
+    @Query(value = "WITH inserted AS (" +
+            "INSERT INTO likes (user_id, movie_id) SELECT :userId, m.id FROM movies m WHERE m.id = :movieId " +
+            "ON CONFLICT (user_id, movie_id) DO NOTHING RETURNING movie_id) " +
+            "SELECT COALESCE(m.likes_count, 0), (SELECT COUNT(*) FROM inserted) FROM movies m WHERE m.id = :movieId",
+            nativeQuery = true)
+    List<Object[]> insertLike(Long userId, Long movieId);
+
+    @Transactional
+    @Query(value = "WITH deleted AS (" +
+            "DELETE FROM likes WHERE user_id = :userId AND movie_id = :movieId RETURNING movie_id) " +
+            "SELECT COALESCE(m.likes_count, 0), (SELECT COUNT(*) FROM deleted) FROM movies m WHERE m.id = :movieId",
+            nativeQuery = true)
+    List<Object[]> deleteLike(Long userId, Long movieId);
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,4 +25,7 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     
     @Query("SELECT COALESCE(SUM(m.runtime),0) FROM Movie m WHERE m.user.id = :userId AND m.status = 'WATCHED'")
     Long calculateTotalWatchTimeByUserId(Long userId);
+
+    @Query("SELECT m.id, m.user.id FROM Movie m WHERE m.id IN :movieIds")
+    List<Object[]> findOwnerIdsByMovieIds(Collection<Long> movieIds);
 }
\ No newline at end of file
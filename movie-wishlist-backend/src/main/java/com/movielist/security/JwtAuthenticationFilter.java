@@ -5,6 +5,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -13,9 +14,15 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // SSE endpoints, which also accept a stream token in the query string
+    private static final List<String> STREAM_PATHS = List.of("/api/users/me/stream", "/api/social/movies/*/stream");
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
@@ -27,8 +34,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            boolean streamToken = false;
+            if (!StringUtils.hasText(jwt) && isStreamPath(request)) {
+                jwt = request.getParameter("token");
+                streamToken = true;
+            }
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
+            // Stream tokens travel in URLs, so they only open streams and never authorize other requests
+            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)
+                    && tokenProvider.isStreamToken(jwt) == streamToken) {
                 String username = tokenProvider.getUsernameFromJWT(jwt);
 
                 UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
@@ -52,4 +66,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    private boolean isStreamPath(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return STREAM_PATHS.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
 }
\ No newline at end of file
@@ -17,12 +17,18 @@ public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String STREAM_SCOPE = "stream";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
+    @Value("${jwt.stream-token-expiration}")
+    private int streamTokenExpirationInMs;
+
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         Date now = new Date();
@@ -36,6 +42,32 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    // Short-lived token for EventSource, which cannot send an Authorization header and puts it in the URL instead
+    public String generateStreamToken(String username) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(username)
+                .claim(SCOPE_CLAIM, STREAM_SCOPE)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + streamTokenExpirationInMs))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    public int getStreamTokenExpirationInMs() {
+        return streamTokenExpirationInMs;
+    }
+
+    public boolean isStreamToken(String token) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(getSigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        return STREAM_SCOPE.equals(claims.get(SCOPE_CLAIM, String.class));
+    }
+
     public String getUsernameFromJWT(String token) {
         Claims claims = Jwts.parserBuilder()
                 .setSigningKey(getSigningKey())
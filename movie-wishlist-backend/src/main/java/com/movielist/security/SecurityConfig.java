@@ -1,5 +1,6 @@
 package com.movielist.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -58,7 +59,13 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches resume a request that was already authorized, and the JWT filter does not rerun on them
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**", "/api/public/**").permitAll()
+                // Posters are loaded by <img> tags, which cannot send the bearer token
+                .requestMatchers("/api/images/**").permitAll()
+                // Probes from the orchestrator carry no credentials
+                .requestMatchers("/api/health", "/api/health/**").permitAll()
                 .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
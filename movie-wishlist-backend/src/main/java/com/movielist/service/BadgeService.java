@@ -1,5 +1,6 @@
 package com.movielist.service;
 
+import com.movielist.entity.ActivityEvent;
 import com.movielist.entity.Badge;
 import com.movielist.entity.Movie;
 import com.movielist.entity.User;
@@ -17,6 +18,9 @@ public class BadgeService {
     @Autowired
     private MovieRepository movieRepository;
 
+    @Autowired
+    private FeedService feedService;
+
     public void checkAndAwardBadges(User user) {
         // Count watched movies
         Long watchedMoviesCount = movieRepository.countWatchedMoviesByUserId(user.getId());
@@ -71,5 +75,6 @@ public class BadgeService {
         badge.setUser(user);
         badge.setBadgeName(badgeName);
         badgeRepository.save(badge);
+        feedService.publish(user, ActivityEvent.Type.BADGE_EARNED, null, badgeName);
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.movielist.service;
+
+import com.movielist.entity.ActivityEvent;
+import com.movielist.entity.Movie;
+import com.movielist.entity.User;
+import com.movielist.payload.FeedEventResponse;
+import com.movielist.payload.FeedPageResponse;
+import com.movielist.repository.ActivityEventRepository;
+import com.movielist.repository.FeedEntryRepository;
+import com.movielist.repository.FollowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class FeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int BACKFILL_EVENTS = 20;
+
+    @Autowired
+    private ActivityEventRepository activityEventRepository;
+
+    @Autowired
+    private FeedEntryRepository feedEntryRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Value("${feed.fanout.max-followers:10000}")
+    private long fanOutMaxFollowers;
+
+    public void publish(User actor, ActivityEvent.Type type, Movie movie, String detail) {
+        try {
+            long followers = followRepository.countFollowersByUserId(actor.getId());
+
+            ActivityEvent event = new ActivityEvent();
+            event.setActorId(actor.getId());
+            event.setActorUsername(actor.getUsername());
+            event.setType(type);
+            if (movie != null) {
+                event.setMovieId(movie.getId());
+                event.setMovieTitle(movie.getTitle());
+            }
+            event.setDetail(detail);
+            event.setFannedOut(followers <= fanOutMaxFollowers);
+
+            ActivityEvent savedEvent = activityEventRepository.save(event);
+
+            if (savedEvent.getFannedOut() && followers > 0) {
+                feedEntryRepository.fanOut(savedEvent.getId(), actor.getId());
+            }
+        } catch (Exception e) {
+            // The feed is best effort and must never fail the action that raised the event
+            logger.error("Error publishing {} event for user {}: {}", type, actor.getId(), e.getMessage());
+        }
+    }
+
+    public void onFollow(Long followerId, Long followingId) {
+        feedEntryRepository.backfill(followerId, followingId, BACKFILL_EVENTS);
+    }
+
+    public void onUnfollow(Long followerId, Long followingId) {
+        feedEntryRepository.removeActor(followerId, followingId);
+    }
+
+    public FeedPageResponse getFeed(User user, Long before, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        PageRequest page = PageRequest.of(0, pageSize);
+
+        // Pushed entries are a single range scan on the (owner_id, event_id) index;
+        // events from accounts too large to fan out are merged in from the pull path.
+        TreeSet<Long> eventIds = new TreeSet<>(Comparator.reverseOrder());
+        eventIds.addAll(feedEntryRepository.findEventIds(user.getId(), cursor, page));
+        eventIds.addAll(activityEventRepository.findPulledEventIds(user.getId(), cursor, page));
+
+        List<Long> pageIds = eventIds.stream().limit(pageSize).collect(Collectors.toList());
+        Map<Long, ActivityEvent> events = activityEventRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(ActivityEvent::getId, event -> event));
+
+        List<FeedEventResponse> responses = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            ActivityEvent event = events.get(id);
+            if (event != null) {
+                responses.add(convertToFeedEventResponse(event));
+            }
+        }
+
+        Long nextCursor = pageIds.size() == pageSize ? pageIds.get(pageIds.size() - 1) : null;
+        return new FeedPageResponse(responses, nextCursor);
+    }
+
+    private FeedEventResponse convertToFeedEventResponse(ActivityEvent event) {
+        FeedEventResponse response = new FeedEventResponse();
+        response.setId(event.getId());
+        response.setType(event.getType());
+        response.setActorId(event.getActorId());
+        response.setActorUsername(event.getActorUsername());
+        response.setMovieId(event.getMovieId());
+        response.setMovieTitle(event.getMovieTitle());
+        response.setDetail(event.getDetail());
+        response.setCreatedAt(event.getCreatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,201 @@
+package com.movielist.service;
+
+import com.movielist.entity.User;
+import com.movielist.payload.FollowSuggestionResponse;
+import com.movielist.repository.UserRepository;
+import com.movielist.util.LongIntHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+public class FollowSuggestionService {
+
+    // Bounds on the two-hop traversal so large neighbourhoods stay within the latency budget
+    private static final int MAX_FIRST_HOP = 2000;
+    private static final int MAX_SECOND_HOP_EDGES = 200_000;
+    private static final int ID_CHUNK_SIZE = 1000;
+    private static final int TASTE_CANDIDATES = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${suggestions.cache-ttl:10m}")
+    private Duration cacheTtl;
+
+    private final Map<Long, CachedSuggestions> cache = new ConcurrentHashMap<>();
+
+    public List<FollowSuggestionResponse> getSuggestions(Long userId, int limit) {
+        CachedSuggestions cached = cache.get(userId);
+        List<FollowSuggestionResponse> suggestions;
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            suggestions = cached.suggestions;
+        } else {
+            suggestions = computeSuggestions(userId, MAX_SUGGESTIONS);
+            if (cache.size() >= MAX_CACHED_USERS) {
+                long now = System.currentTimeMillis();
+                cache.values().removeIf(entry -> entry.expiresAt <= now);
+            }
+            cache.put(userId, new CachedSuggestions(suggestions, System.currentTimeMillis() + cacheTtl.toMillis()));
+        }
+        return suggestions.subList(0, Math.min(Math.max(limit, 0), suggestions.size()));
+    }
+
+    public void evict(Long userId) {
+        cache.remove(userId);
+    }
+
+    private List<FollowSuggestionResponse> computeSuggestions(Long userId, int limit) {
+        long[] following = jdbcTemplate.getJdbcTemplate().query(
+                "SELECT following_id FROM follows WHERE follower_id = ? LIMIT ?",
+                rs -> {
+                    long[] ids = new long[MAX_FIRST_HOP];
+                    int n = 0;
+                    while (rs.next()) {
+                        ids[n++] = rs.getLong(1);
+                    }
+                    return Arrays.copyOf(ids, n);
+                },
+                userId, MAX_FIRST_HOP);
+
+        if (following == null || following.length == 0) {
+            return Collections.emptyList();
+        }
+
+        LongIntHashMap excluded = new LongIntHashMap(following.length + 1);
+        excluded.put(userId, 1);
+        for (long id : following) {
+            excluded.put(id, 1);
+        }
+
+        // Count how many of the accounts we follow also follow each candidate
+        LongIntHashMap mutualCounts = new LongIntHashMap(1024);
+        int edgeBudget = MAX_SECOND_HOP_EDGES;
+        for (int from = 0; from < following.length && edgeBudget > 0; from += ID_CHUNK_SIZE) {
+            List<Long> chunk = new ArrayList<>(ID_CHUNK_SIZE);
+            for (int i = from; i < Math.min(from + ID_CHUNK_SIZE, following.length); i++) {
+                chunk.add(following[i]);
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", chunk)
+                    .addValue("limit", edgeBudget);
+            int[] edgesRead = new int[1];
+            jdbcTemplate.query(
+                    "SELECT following_id FROM follows WHERE follower_id IN (:ids) LIMIT :limit",
+                    params,
+                    rs -> {
+                        edgesRead[0]++;
+                        long candidate = rs.getLong(1);
+                        if (!excluded.containsKey(candidate)) {
+                            mutualCounts.addTo(candidate, 1);
+                        }
+                    });
+            edgeBudget -= edgesRead[0];
+        }
+
+        if (mutualCounts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Candidate> candidates = topByMutualCount(mutualCounts, TASTE_CANDIDATES);
+        Map<Long, Set<String>> candidateGenres = loadWatchedGenres(candidates.stream()
+                .map(candidate -> candidate.userId)
+                .collect(Collectors.toList()));
+        Set<String> ownGenres = loadWatchedGenres(Collections.singletonList(userId))
+                .getOrDefault(userId, Collections.emptySet());
+
+        for (Candidate candidate : candidates) {
+            Set<String> genres = candidateGenres.getOrDefault(candidate.userId, Collections.emptySet());
+            Set<String> shared = new TreeSet<>(genres);
+            shared.retainAll(ownGenres);
+            int union = ownGenres.size() + genres.size() - shared.size();
+            double tasteOverlap = union == 0 ? 0.0 : (double) shared.size() / union;
+            candidate.sharedGenres = new ArrayList<>(shared);
+            candidate.score = candidate.mutualCount * (1.0 + tasteOverlap);
+        }
+
+        candidates.sort(Comparator.comparingDouble((Candidate c) -> c.score).reversed()
+                .thenComparingLong(c -> c.userId));
+        List<Candidate> top = candidates.subList(0, Math.min(limit, candidates.size()));
+
+        Map<Long, User> users = userRepository.findAllById(top.stream()
+                        .map(candidate -> candidate.userId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+
+        List<FollowSuggestionResponse> suggestions = new ArrayList<>(top.size());
+        for (Candidate candidate : top) {
+            User user = users.get(candidate.userId);
+            if (user == null) {
+                continue;
+            }
+            suggestions.add(new FollowSuggestionResponse(user.getId(), user.getUsername(),
+                    user.getProfilePictureUrl(), candidate.mutualCount, candidate.sharedGenres, candidate.score));
+        }
+        return suggestions;
+    }
+
+    private List<Candidate> topByMutualCount(LongIntHashMap mutualCounts, int size) {
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(size + 1,
+                Comparator.comparingInt((Candidate c) -> c.mutualCount).thenComparing(c -> -c.userId));
+        mutualCounts.forEach((candidateId, count) -> {
+            if (heap.size() < size) {
+                heap.add(new Candidate(candidateId, count));
+            } else if (count > heap.peek().mutualCount) {
+                heap.poll();
+                heap.add(new Candidate(candidateId, count));
+            }
+        });
+        return new ArrayList<>(heap);
+    }
+
+    private Map<Long, Set<String>> loadWatchedGenres(List<Long> userIds) {
+        Map<Long, Set<String>> genres = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return genres;
+        }
+        jdbcTemplate.query(
+                "SELECT DISTINCT user_id, genre FROM movies " +
+                        "WHERE user_id IN (:ids) AND status = 'WATCHED' AND genre IS NOT NULL AND genre <> ''",
+                new MapSqlParameterSource("ids", userIds),
+                rs -> {
+                    genres.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getString(2));
+                });
+        return genres;
+    }
+
+    private static class Candidate {
+        private final long userId;
+        private final int mutualCount;
+        private List<String> sharedGenres = Collections.emptyList();
+        private double score;
+
+        private Candidate(long userId, int mutualCount) {
+            this.userId = userId;
+            this.mutualCount = mutualCount;
+        }
+    }
+
+    private static class CachedSuggestions {
+        private final List<FollowSuggestionResponse> suggestions;
+        private final long expiresAt;
+
+        private CachedSuggestions(List<FollowSuggestionResponse> suggestions, long expiresAt) {
+            this.suggestions = suggestions;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,840 @@
+package com.movielist.service;
+
+import com.movielist.event.MovieLikedEvent;
+import com.movielist.payload.RecommendationIndexStatusResponse;
+import com.movielist.util.LongIntHashMap;
+import com.movielist.util.TopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Item-to-item collaborative filtering index over every user's library and likes. Movies are
+ * keyed by TMDB id, or by normalized title for copies never linked to TMDB. A periodic job reads
+ * all interactions, lays them out as user and item rows in compressed sparse row form and
+ * computes each item's top-K cosine neighbours in parallel. Likes that arrive between rebuilds
+ * are applied to the affected neighbour rows incrementally, registering users and movies the
+ * last rebuild did not know about. A rebuild computes its model without holding the update lock
+ * and replays the likes applied in the meantime onto it before swapping it in.
+ */
+@Service
+public class ItemSimilarityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemSimilarityIndex.class);
+
+    private static final float LIKE_WEIGHT = 1.0f;
+    private static final float WISHLIST_WEIGHT = 1.0f;
+    private static final float WATCHED_WEIGHT = 1.5f;
+
+    // Damps similarities that rest on only a few shared users
+    private static final float SHRINKAGE = 5f;
+
+    // Huge libraries add quadratic work but little signal; very popular items are sampled
+    private static final int MAX_ITEMS_PER_USER = 2000;
+    private static final int MAX_USERS_PER_ITEM = 5000;
+
+    // Interactions are packed as user (32 bits) | item (24 bits) | code (8 bits) so they sort as primitives
+    private static final int MAX_ITEMS = 1 << 24;
+    private static final int LIKED_BIT = 1 << 4;
+    private static final int OWN_CODE_MASK = LIKED_BIT - 1;
+
+    @Value("${recommendations.neighbours}")
+    private int neighbours;
+
+    @Value("${recommendations.parallelism}")
+    private int parallelism;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("backgroundJobExecutor")
+    private TaskExecutor backgroundJobExecutor;
+
+    private volatile Model model;
+
+    private final AtomicBoolean building = new AtomicBoolean(false);
+
+    // Held while likes are applied to the model and while a rebuild swaps in its result
+    private final Object updateLock = new Object();
+
+    private final Queue<MovieLikedEvent> pendingLikes = new ConcurrentLinkedQueue<>();
+
+    // Likes applied since the running rebuild started reading; null when no rebuild is running
+    private List<ResolvedLike> likesDuringBuild;
+
+    @Scheduled(initialDelayString = "${recommendations.initial-delay-ms}",
+            fixedDelayString = "${recommendations.rebuild-interval-ms}")
+    public void scheduledRebuild() {
+        if (building.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::rebuild);
+        }
+    }
+
+    // Starts a rebuild in the background unless one is already running
+    public RecommendationIndexStatusResponse startRebuild() {
+        if (building.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::rebuild);
+        }
+        return getStatus();
+    }
+
+    public RecommendationIndexStatusResponse getStatus() {
+        Model current = model;
+        RecommendationIndexStatusResponse status = new RecommendationIndexStatusResponse();
+        status.setBuilding(building.get());
+        status.setPendingLikes(pendingLikes.size());
+        if (current != null) {
+            status.setBuiltAt(current.builtAt);
+            status.setBuildMillis(current.buildMillis);
+            status.setItems(current.itemCount());
+            status.setUsers(current.userIds.length);
+            status.setInteractions(current.userItems.length);
+        }
+        return status;
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    @EventListener
+    public void onMovieLiked(MovieLikedEvent event) {
+        if (model != null) {
+            pendingLikes.add(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.incremental-interval-ms}")
+    public void applyPendingLikes() {
+        if (pendingLikes.isEmpty()) {
+            return;
+        }
+        List<MovieLikedEvent> events = new ArrayList<>();
+        MovieLikedEvent event;
+        while ((event = pendingLikes.poll()) != null) {
+            events.add(event);
+        }
+
+        Map<Long, LikedMovie> movies = new HashMap<>();
+        Set<Long> movieIds = new HashSet<>();
+        events.forEach(liked -> movieIds.add(liked.getMovieId()));
+        jdbcTemplate.query("SELECT id, tmdb_id, title, genre, release_year, poster_url FROM movies WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", movieIds),
+                rs -> {
+                    movies.put(rs.getLong(1), new LikedMovie(rs.getObject(2, Long.class), rs.getString(3),
+                            rs.getString(4), rs.getObject(5, Integer.class), rs.getString(6)));
+                });
+
+        List<ResolvedLike> likes = new ArrayList<>(events.size());
+        for (MovieLikedEvent liked : events) {
+            LikedMovie movie = movies.get(liked.getMovieId());
+            if (movie != null) {
+                likes.add(new ResolvedLike(liked.getUserId(), movie, liked.isLiked()));
+            }
+        }
+
+        synchronized (updateLock) {
+            applyLikes(model, likes);
+            if (likesDuringBuild != null) {
+                likesDuringBuild.addAll(likes);
+            }
+        }
+    }
+
+    // Caller holds updateLock. Applying a like twice gives the same weights, so rebuilds can replay them
+    private void applyLikes(Model current, List<ResolvedLike> likes) {
+        List<Long> newUsers = new ArrayList<>();
+        Map<String, LikedMovie> newItems = new LinkedHashMap<>();
+        for (ResolvedLike like : likes) {
+            if (!like.liked) {
+                continue;
+            }
+            if (current.userIndex.get(like.userId, -1) < 0 && !newUsers.contains(like.userId)) {
+                newUsers.add(like.userId);
+            }
+            if (current.itemOf(like.movie.tmdbId, like.movie.title) < 0) {
+                newItems.putIfAbsent(MovieKeys.key(like.movie.tmdbId, like.movie.title, current.aliases), like.movie);
+            }
+        }
+        current.addUsers(newUsers);
+        current.addItems(newItems);
+
+        Set<Integer> affected = new HashSet<>();
+        for (ResolvedLike like : likes) {
+            int user = current.userIndex.get(like.userId, -1);
+            int item = current.itemOf(like.movie.tmdbId, like.movie.title);
+            if (user < 0 || item < 0) {
+                continue;
+            }
+            // Unliking falls back to whatever the user's own copy says about the movie
+            float own = current.ownWeight(user, item);
+            float weight = like.liked ? Math.max(own, LIKE_WEIGHT) : own;
+            current.userOverlay.computeIfAbsent(user, key -> new HashMap<>()).put(item, weight);
+            current.itemOverlay.computeIfAbsent(item, key -> new HashMap<>()).put(user, weight);
+            affected.add(item);
+        }
+
+        Scratch scratch = new Scratch(current.itemCount());
+        for (int item : affected) {
+            current.norms[item] = norm(current, item, scratch);
+        }
+        for (int item : affected) {
+            refreshRow(current, item, scratch);
+        }
+    }
+
+    static int ownCode(String status, Integer rating) {
+        if ("WISHLIST".equals(status)) {
+            return 1;
+        }
+        if (!"WATCHED".equals(status)) {
+            return 0;
+        }
+        return rating == null ? 2 : Math.max(1, Math.min(rating, 10)) + 2;
+    }
+
+    // Ratings run from 1 to 10; only ratings above 5 count as a positive signal
+    static float ownWeight(int code) {
+        switch (code) {
+            case 0:
+                return 0f;
+            case 1:
+                return WISHLIST_WEIGHT;
+            case 2:
+                return WATCHED_WEIGHT;
+            default:
+                int rating = code - 2;
+                return rating > 5 ? (rating - 5) / 2.5f : 0f;
+        }
+    }
+
+    static float likeWeight() {
+        return LIKE_WEIGHT;
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        try {
+            synchronized (updateLock) {
+                likesDuringBuild = new ArrayList<>();
+            }
+            // The scan and neighbour computation run unlocked; likes keep landing on the old model meanwhile
+            Model built = build();
+            built.buildMillis = (System.nanoTime() - start) / 1_000_000;
+            synchronized (updateLock) {
+                // The scan may have read the database before these likes were committed
+                applyLikes(built, likesDuringBuild);
+                model = built;
+            }
+            logger.info("Item similarity index built in {} ms: {} items, {} users, {} interactions",
+                    built.buildMillis, built.itemCount(), built.userIds.length, built.userItems.length);
+        } catch (Exception e) {
+            logger.error("Item similarity index build failed: {}", e.getMessage());
+        } finally {
+            synchronized (updateLock) {
+                likesDuringBuild = null;
+            }
+            building.set(false);
+        }
+    }
+
+    private Model build() throws Exception {
+        Model built = new Model();
+
+        built.aliases = MovieKeys.loadAliases(jdbcTemplate.getJdbcTemplate());
+
+        ItemRegistry items = new ItemRegistry(built);
+        LongIntHashMap userIndex = new LongIntHashMap();
+        List<Long> userIds = new ArrayList<>();
+        long[][] packed = {new long[1024]};
+        int[] count = {0};
+
+        jdbcTemplate.getJdbcTemplate().query(
+                "SELECT user_id, tmdb_id, title, genre, release_year, poster_url, status, rating FROM movies", rs -> {
+                    int code = ownCode(rs.getString(7), rs.getObject(8, Integer.class));
+                    if (code == 0) {
+                        return;
+                    }
+                    int item = items.register(rs.getObject(2, Long.class), rs.getString(3), rs.getString(4),
+                            rs.getObject(5, Integer.class), rs.getString(6));
+                    int user = userOf(rs.getLong(1), userIndex, userIds);
+                    append(packed, count, ((long) user << 32) | ((long) item << 8) | code);
+                });
+        jdbcTemplate.getJdbcTemplate().query(
+                "SELECT l.user_id, m.tmdb_id, m.title, m.genre, m.release_year, m.poster_url " +
+                "FROM likes l JOIN movies m ON m.id = l.movie_id", rs -> {
+                    int item = items.register(rs.getObject(2, Long.class), rs.getString(3), rs.getString(4),
+                            rs.getObject(5, Integer.class), rs.getString(6));
+                    int user = userOf(rs.getLong(1), userIndex, userIds);
+                    append(packed, count, ((long) user << 32) | ((long) item << 8) | LIKED_BIT);
+                });
+
+        built.userIndex = userIndex;
+        built.userIds = userIds.stream().mapToLong(Long::longValue).toArray();
+        items.finish();
+
+        long[] entries = packed[0];
+        Arrays.parallelSort(entries, 0, count[0]);
+        buildRows(built, entries, count[0]);
+
+        int itemCount = built.itemCount();
+        Scratch normScratch = new Scratch(0);
+        built.norms = new float[itemCount];
+        for (int item = 0; item < itemCount; item++) {
+            built.norms[item] = norm(built, item, normScratch);
+        }
+
+        built.rows = new Neighbours[itemCount];
+        ThreadLocal<Scratch> scratches = ThreadLocal.withInitial(() -> new Scratch(itemCount));
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        try {
+            pool.submit(() -> IntStream.range(0, itemCount).parallel()
+                    .forEach(item -> built.rows[item] = computeRow(built, item, scratches.get()))).get();
+        } finally {
+            pool.shutdown();
+        }
+        built.builtAt = Instant.now();
+        return built;
+    }
+
+    // Merges duplicate (user, item) interactions and lays them out by user, then transposes by item
+    private void buildRows(Model built, long[] entries, int count) {
+        int userCount = built.userIds.length;
+        built.userOffsets = new int[userCount + 1];
+        int[] userItems = new int[count];
+        float[] userWeights = new float[count];
+        float[] userOwn = new float[count];
+        int size = 0;
+
+        int position = 0;
+        while (position < count) {
+            long pair = entries[position] >>> 8;
+            float own = 0f;
+            boolean liked = false;
+            for (; position < count && entries[position] >>> 8 == pair; position++) {
+                int code = (int) (entries[position] & 0xFF);
+                own = Math.max(own, ownWeight(code & OWN_CODE_MASK));
+                liked |= (code & LIKED_BIT) != 0;
+            }
+            float weight = liked ? Math.max(own, LIKE_WEIGHT) : own;
+            if (weight <= 0f) {
+                continue;
+            }
+            int user = (int) (pair >>> 24);
+            built.userOffsets[user + 1]++;
+            userItems[size] = (int) (pair & (MAX_ITEMS - 1));
+            userWeights[size] = weight;
+            userOwn[size] = own;
+            size++;
+        }
+        for (int user = 0; user < userCount; user++) {
+            built.userOffsets[user + 1] += built.userOffsets[user];
+        }
+        built.userItems = Arrays.copyOf(userItems, size);
+        built.userWeights = Arrays.copyOf(userWeights, size);
+        built.userOwn = Arrays.copyOf(userOwn, size);
+
+        int itemCount = built.itemCount();
+        built.itemOffsets = new int[itemCount + 1];
+        for (int index = 0; index < size; index++) {
+            built.itemOffsets[built.userItems[index] + 1]++;
+        }
+        for (int item = 0; item < itemCount; item++) {
+            built.itemOffsets[item + 1] += built.itemOffsets[item];
+        }
+        built.itemUsers = new int[size];
+        built.itemWeights = new float[size];
+        int[] fill = Arrays.copyOf(built.itemOffsets, itemCount);
+        for (int user = 0; user < userCount; user++) {
+            for (int index = built.userOffsets[user]; index < built.userOffsets[user + 1]; index++) {
+                int slot = fill[built.userItems[index]]++;
+                built.itemUsers[slot] = user;
+                built.itemWeights[slot] = built.userWeights[index];
+            }
+        }
+    }
+
+    private Neighbours computeRow(Model current, int item, Scratch scratch) {
+        int touched = accumulate(current, item, scratch);
+        TopK top = new TopK(neighbours);
+        for (int index = 0; index < touched; index++) {
+            int other = scratch.touched[index];
+            float similarity = similarity(current, item, other, scratch);
+            if (similarity > 0f) {
+                top.add(other, similarity);
+            }
+            scratch.clear(other);
+        }
+        return Neighbours.of(top);
+    }
+
+    // Recomputes an item's row and patches its similarity into the rows of every item it touches
+    private void refreshRow(Model current, int item, Scratch scratch) {
+        Neighbours previous = current.rows[item];
+        int touched = accumulate(current, item, scratch);
+        TopK top = new TopK(neighbours);
+        for (int index = 0; index < touched; index++) {
+            int other = scratch.touched[index];
+            float similarity = similarity(current, item, other, scratch);
+            if (similarity > 0f) {
+                top.add(other, similarity);
+            }
+            current.rows[other] = current.rows[other].with(item, similarity, neighbours);
+        }
+        for (int other : previous.items) {
+            if (scratch.co[other] == 0) {
+                current.rows[other] = current.rows[other].with(item, 0f, neighbours);
+            }
+        }
+        for (int index = 0; index < touched; index++) {
+            scratch.clear(scratch.touched[index]);
+        }
+        current.rows[item] = Neighbours.of(top);
+    }
+
+    // Sums w(u, item) * w(u, other) over the item's users into the scratch arrays
+    private int accumulate(Model current, int item, Scratch scratch) {
+        int users = collectItemUsers(current, item, scratch);
+        int touched = 0;
+        for (int index = 0; index < Math.min(users, MAX_USERS_PER_ITEM); index++) {
+            int user = scratch.users[index];
+            float userWeight = scratch.userWeights[index];
+            int userItems = collectUserItems(current, user, scratch);
+            if (userItems > MAX_ITEMS_PER_USER) {
+                continue;
+            }
+            for (int position = 0; position < userItems; position++) {
+                int other = scratch.items[position];
+                if (other == item) {
+                    continue;
+                }
+                if (scratch.co[other] == 0) {
+                    scratch.touched[touched++] = other;
+                }
+                scratch.dot[other] += userWeight * scratch.itemWeights[position];
+                scratch.co[other]++;
+            }
+        }
+        return touched;
+    }
+
+    private float similarity(Model current, int item, int other, Scratch scratch) {
+        float norms = current.norms[item] * current.norms[other];
+        if (norms == 0f) {
+            return 0f;
+        }
+        int shared = scratch.co[other];
+        return scratch.dot[other] / norms * (shared / (shared + SHRINKAGE));
+    }
+
+    private float norm(Model current, int item, Scratch scratch) {
+        int users = collectItemUsers(current, item, scratch);
+        double sum = 0;
+        for (int index = 0; index < users; index++) {
+            sum += scratch.userWeights[index] * scratch.userWeights[index];
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    // Base row from the last rebuild with incremental changes applied on top
+    private int collectItemUsers(Model current, int item, Scratch scratch) {
+        Map<Integer, Float> overlay = current.itemOverlay.isEmpty() ? null : current.itemOverlay.get(item);
+        int from = current.itemOffsets[item];
+        int to = current.itemOffsets[item + 1];
+        scratch.ensureUsers(to - from + (overlay != null ? overlay.size() : 0));
+        int size = 0;
+        for (int index = from; index < to; index++) {
+            int user = current.itemUsers[index];
+            float weight = current.itemWeights[index];
+            if (overlay != null) {
+                weight = overlay.getOrDefault(user, weight);
+            }
+            if (weight > 0f) {
+                scratch.users[size] = user;
+                scratch.userWeights[size++] = weight;
+            }
+        }
+        if (overlay != null) {
+            for (Map.Entry<Integer, Float> entry : overlay.entrySet()) {
+                if (entry.getValue() > 0f && Arrays.binarySearch(current.itemUsers, from, to, entry.getKey()) < 0) {
+                    scratch.users[size] = entry.getKey();
+                    scratch.userWeights[size++] = entry.getValue();
+                }
+            }
+        }
+        return size;
+    }
+
+    private int collectUserItems(Model current, int user, Scratch scratch) {
+        Map<Integer, Float> overlay = current.userOverlay.isEmpty() ? null : current.userOverlay.get(user);
+        int from = current.userOffsets[user];
+        int to = current.userOffsets[user + 1];
+        scratch.ensureItems(to - from + (overlay != null ? overlay.size() : 0));
+        int size = 0;
+        for (int index = from; index < to; index++) {
+            int item = current.userItems[index];
+            float weight = current.userWeights[index];
+            if (overlay != null) {
+                weight = overlay.getOrDefault(item, weight);
+            }
+            if (weight > 0f) {
+                scratch.items[size] = item;
+                scratch.itemWeights[size++] = weight;
+            }
+        }
+        if (overlay != null) {
+            for (Map.Entry<Integer, Float> entry : overlay.entrySet()) {
+                if (entry.getValue() > 0f && Arrays.binarySearch(current.userItems, from, to, entry.getKey()) < 0) {
+                    scratch.items[size] = entry.getKey();
+                    scratch.itemWeights[size++] = entry.getValue();
+                }
+            }
+        }
+        return size;
+    }
+
+    private static int userOf(long userId, LongIntHashMap userIndex, List<Long> userIds) {
+        int user = userIndex.get(userId, -1);
+        if (user < 0) {
+            user = userIds.size();
+            userIndex.put(userId, user);
+            userIds.add(userId);
+        }
+        return user;
+    }
+
+    private static void append(long[][] packed, int[] count, long entry) {
+        if (count[0] == packed[0].length) {
+            packed[0] = Arrays.copyOf(packed[0], packed[0].length * 2);
+        }
+        packed[0][count[0]++] = entry;
+    }
+
+    /**
+     * One built index. The CSR rows never change after the build; neighbour rows, norms, the
+     * overlays and the users and items registered since the build are updated under the index's
+     * update lock. New items are appended by copying the per-item arrays, which are written before
+     * the item's key is published, so readers only ever see whole neighbour rows and metadata for
+     * every item a row or key lookup can return.
+     */
+    public static class Model {
+        private Map<String, Long> aliases;
+        private Map<String, Integer> itemIndex;
+        private volatile long[] tmdbIds;
+        private volatile String[] titles;
+        private volatile String[] genres;
+        private volatile int[] releaseYears;
+        private volatile String[] posterUrls;
+
+        private LongIntHashMap userIndex;
+        private long[] userIds;
+
+        private int[] userOffsets;
+        private int[] userItems;
+        private float[] userWeights;
+        private float[] userOwn;
+
+        private int[] itemOffsets;
+        private int[] itemUsers;
+        private float[] itemWeights;
+
+        private float[] norms;
+        private volatile Neighbours[] rows;
+
+        private final Map<Integer, Map<Integer, Float>> userOverlay = new HashMap<>();
+        private final Map<Integer, Map<Integer, Float>> itemOverlay = new HashMap<>();
+
+        private Instant builtAt;
+        private long buildMillis;
+
+        public int itemOf(Long tmdbId, String title) {
+            Integer item = itemIndex.get(MovieKeys.key(tmdbId, title, aliases));
+            return item != null ? item : -1;
+        }
+
+        public int itemCount() {
+            return titles.length;
+        }
+
+        public Neighbours neighbours(int item) {
+            return rows[item];
+        }
+
+        public Long tmdbId(int item) {
+            return tmdbIds[item] != 0 ? tmdbIds[item] : null;
+        }
+
+        public String title(int item) {
+            return titles[item];
+        }
+
+        public String genre(int item) {
+            return genres[item];
+        }
+
+        public Integer releaseYear(int item) {
+            return releaseYears[item] != 0 ? releaseYears[item] : null;
+        }
+
+        public String posterUrl(int item) {
+            return posterUrls[item];
+        }
+
+        private float ownWeight(int user, int item) {
+            int from = userOffsets[user];
+            int position = Arrays.binarySearch(userItems, from, userOffsets[user + 1], item);
+            return position >= 0 ? userOwn[position] : 0f;
+        }
+
+        // New users start with an empty CSR row; their likes live in the overlay until the next rebuild
+        private void addUsers(List<Long> ids) {
+            if (ids.isEmpty()) {
+                return;
+            }
+            int from = userIds.length;
+            int end = userOffsets[from];
+            userIds = Arrays.copyOf(userIds, from + ids.size());
+            userOffsets = Arrays.copyOf(userOffsets, from + ids.size() + 1);
+            for (int index = 0; index < ids.size(); index++) {
+                userIds[from + index] = ids.get(index);
+                userOffsets[from + index + 1] = end;
+                userIndex.put(ids.get(index), from + index);
+            }
+        }
+
+        // New items are keyed by their canonical movie key and start with no users and no neighbours
+        private void addItems(Map<String, LikedMovie> movies) {
+            if (movies.isEmpty()) {
+                return;
+            }
+            int from = titles.length;
+            int size = from + movies.size();
+            if (size > MAX_ITEMS) {
+                throw new IllegalStateException("Too many distinct movies for the similarity index");
+            }
+            long[] newTmdbIds = Arrays.copyOf(tmdbIds, size);
+            String[] newTitles = Arrays.copyOf(titles, size);
+            String[] newGenres = Arrays.copyOf(genres, size);
+            int[] newReleaseYears = Arrays.copyOf(releaseYears, size);
+            String[] newPosterUrls = Arrays.copyOf(posterUrls, size);
+            int end = itemOffsets[from];
+            itemOffsets = Arrays.copyOf(itemOffsets, size + 1);
+            Arrays.fill(itemOffsets, from + 1, size + 1, end);
+            norms = Arrays.copyOf(norms, size);
+            Neighbours[] newRows = Arrays.copyOf(rows, size);
+            Arrays.fill(newRows, from, size, Neighbours.EMPTY);
+
+            int item = from;
+            for (Map.Entry<String, LikedMovie> entry : movies.entrySet()) {
+                LikedMovie movie = entry.getValue();
+                Long keyTmdbId = MovieKeys.tmdbId(entry.getKey());
+                newTmdbIds[item] = keyTmdbId != null ? keyTmdbId : 0L;
+                newTitles[item] = movie.title;
+                newGenres[item] = movie.genre;
+                newReleaseYears[item] = movie.releaseYear != null ? movie.releaseYear : 0;
+                newPosterUrls[item] = movie.posterUrl;
+                item++;
+            }
+            tmdbIds = newTmdbIds;
+            titles = newTitles;
+            genres = newGenres;
+            releaseYears = newReleaseYears;
+            posterUrls = newPosterUrls;
+            rows = newRows;
+
+            item = from;
+            for (String key : movies.keySet()) {
+                itemIndex.put(key, item++);
+            }
+        }
+    }
+
+    // Top-K neighbours of one item, by descending similarity
+    public static class Neighbours {
+        private static final Neighbours EMPTY = new Neighbours(new int[0], new float[0]);
+
+        private final int[] items;
+        private final float[] scores;
+
+        private Neighbours(int[] items, float[] scores) {
+            this.items = items;
+            this.scores = scores;
+        }
+
+        private static Neighbours of(TopK top) {
+            if (top.size() == 0) {
+                return EMPTY;
+            }
+            int[] items = new int[top.size()];
+            float[] scores = new float[top.size()];
+            top.drainDescending(items, scores);
+            return new Neighbours(items, scores);
+        }
+
+        public int size() {
+            return items.length;
+        }
+
+        public int item(int index) {
+            return items[index];
+        }
+
+        public float score(int index) {
+            return scores[index];
+        }
+
+        // Copy with the item's similarity replaced, keeping at most limit entries
+        private Neighbours with(int item, float score, int limit) {
+            int[] newItems = new int[Math.min(items.length + 1, limit)];
+            float[] newScores = new float[newItems.length];
+            int size = 0;
+            boolean placed = score <= 0f;
+            for (int index = 0; index < items.length && size < newItems.length; index++) {
+                if (items[index] == item) {
+                    continue;
+                }
+                if (!placed && score > scores[index]) {
+                    newItems[size] = item;
+                    newScores[size++] = score;
+                    placed = true;
+                    if (size == newItems.length) {
+                        break;
+                    }
+                }
+                newItems[size] = items[index];
+                newScores[size++] = scores[index];
+            }
+            if (!placed && size < newItems.length) {
+                newItems[size] = item;
+                newScores[size++] = score;
+            }
+            return new Neighbours(Arrays.copyOf(newItems, size), Arrays.copyOf(newScores, size));
+        }
+    }
+
+    private static class LikedMovie {
+        private final Long tmdbId;
+        private final String title;
+        private final String genre;
+        private final Integer releaseYear;
+        private final String posterUrl;
+
+        private LikedMovie(Long tmdbId, String title, String genre, Integer releaseYear, String posterUrl) {
+            this.tmdbId = tmdbId;
+            this.title = title;
+            this.genre = genre;
+            this.releaseYear = releaseYear;
+            this.posterUrl = posterUrl;
+        }
+    }
+
+    private static class ResolvedLike {
+        private final long userId;
+        private final LikedMovie movie;
+        private final boolean liked;
+
+        private ResolvedLike(long userId, LikedMovie movie, boolean liked) {
+            this.userId = userId;
+            this.movie = movie;
+            this.liked = liked;
+        }
+    }
+
+    // Collects item metadata from the first row seen for each canonical key
+    private static class ItemRegistry {
+        private final Model built;
+        // Concurrent because likes register new items while readers look keys up
+        private final Map<String, Integer> index = new ConcurrentHashMap<>();
+        private final List<Long> tmdbIds = new ArrayList<>();
+        private final List<String> titles = new ArrayList<>();
+        private final List<String> genres = new ArrayList<>();
+        private final List<Integer> releaseYears = new ArrayList<>();
+        private final List<String> posterUrls = new ArrayList<>();
+
+        private ItemRegistry(Model built) {
+            this.built = built;
+        }
+
+        private int register(Long tmdbId, String title, String genre, Integer releaseYear, String posterUrl) {
+            String key = MovieKeys.key(tmdbId, title, built.aliases);
+            Integer item = index.get(key);
+            if (item != null) {
+                return item;
+            }
+            if (index.size() >= MAX_ITEMS) {
+                throw new IllegalStateException("Too many distinct movies for the similarity index");
+            }
+            item = index.size();
+            index.put(key, item);
+            Long keyTmdbId = MovieKeys.tmdbId(key);
+            tmdbIds.add(keyTmdbId != null ? keyTmdbId : 0L);
+            titles.add(title);
+            genres.add(genre);
+            releaseYears.add(releaseYear != null ? releaseYear : 0);
+            posterUrls.add(posterUrl);
+            return item;
+        }
+
+        private void finish() {
+            built.itemIndex = index;
+            built.tmdbIds = tmdbIds.stream().mapToLong(Long::longValue).toArray();
+            built.titles = titles.toArray(new String[0]);
+            built.genres = genres.toArray(new String[0]);
+            built.releaseYears = releaseYears.stream().mapToInt(Integer::intValue).toArray();
+            built.posterUrls = posterUrls.toArray(new String[0]);
+        }
+    }
+
+    // Per-thread working arrays, so computing a row allocates nothing
+    private static class Scratch {
+        private final float[] dot;
+        private final int[] co;
+        private final int[] touched;
+        private int[] users = new int[64];
+        private float[] userWeights = new float[64];
+        private int[] items = new int[64];
+        private float[] itemWeights = new float[64];
+
+        private Scratch(int itemCount) {
+            this.dot = new float[itemCount];
+            this.co = new int[itemCount];
+            this.touched = new int[itemCount];
+        }
+
+        private void clear(int item) {
+            dot[item] = 0f;
+            co[item] = 0;
+        }
+
+        private void ensureUsers(int size) {
+            if (users.length < size) {
+                users = new int[Math.max(size, users.length * 2)];
+                userWeights = new float[users.length];
+            }
+        }
+
+        private void ensureItems(int size) {
+            if (items.length < size) {
+                items = new int[Math.max(size, items.length * 2)];
+                itemWeights = new float[items.length];
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.movielist.service;
+
+import com.movielist.entity.Movie;
+import com.movielist.payload.LibraryFacetsResponse;
+import com.movielist.payload.LibraryFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user in-memory bitmap indexes over the library: one bitmap per genre, release year,
+ * rating and status value. Filters and facet counts are bitmap intersections, so the
+ * library is loaded once as a narrow projection rather than on every request.
+ */
+@Service
+public class LibraryFacetIndex {
+
+    private static final int MAX_CACHED_USERS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so an index loaded concurrently with a write is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public Result query(Long userId, LibraryFilter filter) {
+        UserIndex index = indexes.get(userId);
+        if (index == null) {
+            long evictionsBeforeLoad = evictions.get();
+            index = load(userId);
+            if (indexes.size() >= MAX_CACHED_USERS) {
+                evictLeastRecentlyUsed();
+            }
+            if (evictions.get() == evictionsBeforeLoad) {
+                indexes.put(userId, index);
+            }
+        }
+        index.lastAccess = System.nanoTime();
+        return index.query(filter);
+    }
+
+    public void evict(Long userId) {
+        evictions.incrementAndGet();
+        indexes.remove(userId);
+    }
+
+    private UserIndex load(Long userId) {
+        UserIndex index = new UserIndex();
+        List<Long> ids = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, genre, release_year, rating, status FROM movies WHERE user_id = ? ORDER BY id DESC",
+                rs -> {
+                    int bit = ids.size();
+                    ids.add(rs.getLong(1));
+                    String genre = rs.getString(2);
+                    if (genre != null) {
+                        for (String value : genre.split(",")) {
+                            if (!value.isBlank()) {
+                                index.genres.computeIfAbsent(value.trim(), key -> new BitSet()).set(bit);
+                            }
+                        }
+                    }
+                    int year = rs.getInt(3);
+                    if (!rs.wasNull()) {
+                        index.years.computeIfAbsent(year, key -> new BitSet()).set(bit);
+                    }
+                    int rating = rs.getInt(4);
+                    if (!rs.wasNull()) {
+                        index.ratings.computeIfAbsent(rating, key -> new BitSet()).set(bit);
+                    }
+                    String status = rs.getString(5);
+                    if (status != null) {
+                        index.statuses.computeIfAbsent(Movie.Status.valueOf(status), key -> new BitSet()).set(bit);
+                    }
+                }, userId);
+        index.movieIds = ids.stream().mapToLong(Long::longValue).toArray();
+        index.all = new BitSet(index.movieIds.length);
+        index.all.set(0, index.movieIds.length);
+        return index;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        indexes.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                .ifPresent(entry -> indexes.remove(entry.getKey()));
+    }
+
+    public static class Result {
+        private final List<Long> movieIds;
+        private final long total;
+        private final LibraryFacetsResponse facets;
+
+        private Result(List<Long> movieIds, long total, LibraryFacetsResponse facets) {
+            this.movieIds = movieIds;
+            this.total = total;
+            this.facets = facets;
+        }
+
+        public List<Long> getMovieIds() {
+            return movieIds;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public LibraryFacetsResponse getFacets() {
+            return facets;
+        }
+    }
+
+    private static class UserIndex {
+        // Bit i refers to movieIds[i]; movies are ordered newest first
+        private long[] movieIds;
+        private BitSet all;
+        private final Map<String, BitSet> genres = new HashMap<>();
+        private final Map<Integer, BitSet> years = new HashMap<>();
+        private final Map<Integer, BitSet> ratings = new HashMap<>();
+        private final Map<Movie.Status, BitSet> statuses = new EnumMap<>(Movie.Status.class);
+        private volatile long lastAccess;
+
+        private Result query(LibraryFilter filter) {
+            BitSet genreMatch = filter.getGenre() == null || filter.getGenre().isEmpty()
+                    ? null : union(genres, new HashSet<>(filter.getGenre()));
+            BitSet yearMatch = filter.getYearFrom() == null && filter.getYearTo() == null
+                    ? null : rangeUnion(years, filter.getYearFrom(), filter.getYearTo());
+            BitSet ratingMatch = filter.getRatingMin() == null && filter.getRatingMax() == null
+                    ? null : rangeUnion(ratings, filter.getRatingMin(), filter.getRatingMax());
+            BitSet statusMatch = filter.getStatus() == null
+                    ? null : statuses.getOrDefault(filter.getStatus(), new BitSet());
+
+            BitSet matches = intersect(genreMatch, yearMatch, ratingMatch, statusMatch);
+
+            LibraryFacetsResponse facets = new LibraryFacetsResponse(
+                    counts(genres, intersect(yearMatch, ratingMatch, statusMatch)),
+                    decadeCounts(intersect(genreMatch, ratingMatch, statusMatch)),
+                    counts(ratings, intersect(genreMatch, yearMatch, statusMatch)),
+                    statusCounts(intersect(genreMatch, yearMatch, ratingMatch)));
+
+            int from = Math.max(0, filter.getPage()) * Math.max(1, filter.getSize());
+            List<Long> page = new ArrayList<>();
+            int position = 0;
+            for (int bit = matches.nextSetBit(0); bit >= 0 && page.size() < filter.getSize(); bit = matches.nextSetBit(bit + 1)) {
+                if (position++ >= from) {
+                    page.add(movieIds[bit]);
+                }
+            }
+            return new Result(page, matches.cardinality(), facets);
+        }
+
+        private BitSet intersect(BitSet... filters) {
+            BitSet result = (BitSet) all.clone();
+            for (BitSet filter : filters) {
+                if (filter != null) {
+                    result.and(filter);
+                }
+            }
+            return result;
+        }
+
+        private <K> BitSet union(Map<K, BitSet> bitmaps, Set<K> values) {
+            BitSet result = new BitSet();
+            for (K value : values) {
+                BitSet bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    result.or(bitmap);
+                }
+            }
+            return result;
+        }
+
+        private BitSet rangeUnion(Map<Integer, BitSet> bitmaps, Integer min, Integer max) {
+            BitSet result = new BitSet();
+            for (Map.Entry<Integer, BitSet> entry : bitmaps.entrySet()) {
+                if ((min == null || entry.getKey() >= min) && (max == null || entry.getKey() <= max)) {
+                    result.or(entry.getValue());
+                }
+            }
+            return result;
+        }
+
+        private <K extends Comparable<K>> Map<K, Long> counts(Map<K, BitSet> bitmaps, BitSet base) {
+            Map<K, Long> counts = new TreeMap<>();
+            for (Map.Entry<K, BitSet> entry : bitmaps.entrySet()) {
+                BitSet bitmap = (BitSet) entry.getValue().clone();
+                bitmap.and(base);
+                if (!bitmap.isEmpty()) {
+                    counts.put(entry.getKey(), (long) bitmap.cardinality());
+                }
+            }
+            return counts;
+        }
+
+        private Map<Integer, Long> decadeCounts(BitSet base) {
+            Map<Integer, Long> counts = new TreeMap<>();
+            for (Map.Entry<Integer, Long> entry : counts(years, base).entrySet()) {
+                counts.merge(Math.floorDiv(entry.getKey(), 10) * 10, entry.getValue(), Long::sum);
+            }
+            return counts;
+        }
+
+        private Map<String, Long> statusCounts(BitSet base) {
+            Map<String, Long> counts = new TreeMap<>();
+            for (Map.Entry<Movie.Status, BitSet> entry : statuses.entrySet()) {
+                BitSet bitmap = (BitSet) entry.getValue().clone();
+                bitmap.and(base);
+                counts.put(entry.getKey().name(), (long) bitmap.cardinality());
+            }
+            return counts;
+        }
+    }
+}
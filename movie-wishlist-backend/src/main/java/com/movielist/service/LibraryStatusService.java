@@ -0,0 +1,81 @@
+package com.movielist.service;
+
+import com.movielist.entity.Movie;
+import com.movielist.payload.MovieResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.util.*;
+
+/**
+ * Annotates TMDB results with the caller's library status, whether the caller liked any copy
+ * of the movie, and the community like count summed over every user's copy. All results are
+ * resolved with a single grouped query keyed by movies.tmdb_id.
+ */
+@Service
+public class LibraryStatusService {
+
+    // MIN prefers WATCHED over WISHLIST if the caller somehow has both copies
+    private static final String LOOKUP_SQL =
+            "SELECT m.tmdb_id, " +
+            "MIN(CASE WHEN m.user_id = :userId THEN m.status END) AS status, " +
+            "COALESCE(SUM(m.likes_count), 0) AS likes_count, " +
+            "BOOL_OR(l.id IS NOT NULL) AS liked, " +
+            "array_agg(m.id) FILTER (WHERE m.likes_count_dirty) AS dirty_ids " +
+            "FROM movies m LEFT JOIN likes l ON l.movie_id = m.id AND l.user_id = :userId " +
+            "WHERE m.tmdb_id IN (:tmdbIds) GROUP BY m.tmdb_id";
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private LikeCounterBuffer likeCounterBuffer;
+
+    // Results are expected to carry TMDB ids in their id field, as TmdbService produces them
+    public void annotate(List<MovieResponse> results, Long userId) {
+        Set<Long> tmdbIds = new HashSet<>();
+        for (MovieResponse result : results) {
+            if (result.getId() != null) {
+                tmdbIds.add(result.getId());
+            }
+        }
+        if (tmdbIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, MovieResponse> found = new HashMap<>();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId != null ? userId : -1L)
+                .addValue("tmdbIds", tmdbIds);
+        namedParameterJdbcTemplate.query(LOOKUP_SQL, params, rs -> {
+            MovieResponse status = new MovieResponse();
+            String value = rs.getString("status");
+            status.setStatus(value != null ? Movie.Status.valueOf(value) : null);
+            // Movies flagged dirty still have like deltas buffered in memory
+            long likes = rs.getLong("likes_count");
+            Array dirtyIds = rs.getArray("dirty_ids");
+            if (dirtyIds != null) {
+                for (Object movieId : (Object[]) dirtyIds.getArray()) {
+                    likes += likeCounterBuffer.getPendingDelta(((Number) movieId).longValue());
+                }
+            }
+            status.setLikesCount(Math.max(likes, 0L));
+            status.setUserLiked(rs.getBoolean("liked"));
+            found.put(rs.getLong("tmdb_id"), status);
+        });
+
+        for (MovieResponse result : results) {
+            MovieResponse status = found.get(result.getId());
+            if (status != null) {
+                result.setStatus(status.getStatus());
+                result.setLikesCount(status.getLikesCount());
+                result.setUserLiked(status.getUserLiked());
+            } else {
+                result.setUserLiked(false);
+            }
+        }
+    }
+}
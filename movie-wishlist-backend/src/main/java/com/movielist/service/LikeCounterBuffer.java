@@ -0,0 +1,167 @@
+package com.movielist.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers like count deltas in memory and writes them to movies.likes_count in batches,
+ * so bursts of likes on one movie don't all contend on the same row.
+ *
+ * A movie is flagged likes_count_dirty in the database while it has unflushed deltas;
+ * on startup the flagged counts are recounted from the likes table. This assumes a
+ * single application instance owns the buffer.
+ */
+@Service
+public class LikeCounterBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCounterBuffer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${likes.buffer.flush-threshold:500}")
+    private int flushThreshold;
+
+    private final Map<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Object dirtyLock = new Object();
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "like-counter-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public void record(Long movieId, long delta) {
+        addDelta(movieId, delta);
+
+        if (!dirty.contains(movieId)) {
+            synchronized (dirtyLock) {
+                if (dirty.add(movieId)) {
+                    jdbcTemplate.update("UPDATE movies SET likes_count_dirty = true WHERE id = ?", movieId);
+                }
+            }
+        }
+
+        if (dirty.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    public long getLikesCount(Long movieId, Long persistedCount) {
+        LongAdder pending = deltas.get(movieId);
+        long count = (persistedCount != null ? persistedCount : 0L) + (pending != null ? pending.sum() : 0L);
+        return Math.max(count, 0L);
+    }
+
+    // Likes recorded for the movie but not yet written to movies.likes_count
+    public long getPendingDelta(Long movieId) {
+        LongAdder pending = deltas.get(movieId);
+        return pending != null ? pending.sum() : 0L;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.buffer.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (dirty.isEmpty()) {
+                return;
+            }
+
+            List<Long> flushed = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            for (Long movieId : new ArrayList<>(dirty)) {
+                // Remove before draining: a delta added after this point re-marks the movie dirty
+                dirty.remove(movieId);
+                LongAdder adder = deltas.get(movieId);
+                long delta = adder != null ? adder.sumThenReset() : 0L;
+                flushed.add(movieId);
+                if (delta != 0) {
+                    updates.add(new Object[]{delta, movieId});
+                }
+            }
+
+            try {
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE movies SET likes_count = COALESCE(likes_count, 0) + ? WHERE id = ?", updates);
+                }
+            } catch (Exception e) {
+                logger.error("Error flushing like counts for {} movies: {}", updates.size(), e.getMessage());
+                for (Object[] update : updates) {
+                    addDelta((Long) update[1], (Long) update[0]);
+                    dirty.add((Long) update[1]);
+                }
+                return;
+            }
+
+            synchronized (dirtyLock) {
+                List<Long> clean = new ArrayList<>();
+                for (Long movieId : flushed) {
+                    if (!dirty.contains(movieId)) {
+                        clean.add(movieId);
+                        // Drop drained adders so the map only holds movies liked since the last flush
+                        deltas.computeIfPresent(movieId, (id, adder) -> adder.sum() == 0 ? null : adder);
+                    }
+                }
+                if (!clean.isEmpty()) {
+                    namedParameterJdbcTemplate.update(
+                            "UPDATE movies SET likes_count_dirty = false WHERE id IN (:ids)",
+                            new MapSqlParameterSource("ids", clean));
+                }
+            }
+        }
+    }
+
+    // Adds inside compute so a flush can't drop the adder between lookup and add and lose the delta
+    private void addDelta(Long movieId, long delta) {
+        deltas.compute(movieId, (id, adder) -> {
+            LongAdder target = adder != null ? adder : new LongAdder();
+            target.add(delta);
+            return target;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recountDirtyMovies() {
+        int recounted = jdbcTemplate.update(
+                "UPDATE movies m SET likes_count = (SELECT COUNT(*) FROM likes l WHERE l.movie_id = m.id), " +
+                        "likes_count_dirty = false WHERE m.likes_count IS NULL OR m.likes_count_dirty = true");
+        if (recounted > 0) {
+            logger.info("Recounted likes for {} movies with unflushed or missing counts", recounted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+}
@@ -0,0 +1,208 @@
+package com.movielist.service;
+
+import com.movielist.event.CommentAddedEvent;
+import com.movielist.event.MovieLikesChangedEvent;
+import com.movielist.event.UserFollowedEvent;
+import com.movielist.payload.LikesCountResponse;
+import com.movielist.payload.NewFollowerResponse;
+import com.movielist.repository.MovieRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class LiveUpdateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    private static final String MOVIE_TOPIC = "movie:";
+    private static final String USER_TOPIC = "user:";
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Value("${live-updates.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    @Value("${live-updates.client-queue-size:32}")
+    private int clientQueueSize;
+
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+
+    // Latest like count per movie, published at most once per flush interval
+    private final Map<Long, Long> pendingLikeCounts = new ConcurrentHashMap<>();
+
+    private final ExecutorService senders = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "live-update-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SseEmitter subscribeToMovie(Long movieId) {
+        return subscribe(MOVIE_TOPIC + movieId);
+    }
+
+    public SseEmitter subscribeToUser(Long userId) {
+        return subscribe(USER_TOPIC + userId);
+    }
+
+    @EventListener
+    public void onMovieLikesChanged(MovieLikesChangedEvent event) {
+        pendingLikeCounts.put(event.getMovieId(), event.getLikesCount());
+    }
+
+    @EventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        publish(MOVIE_TOPIC + event.getComment().getMovieId(), "comment", event.getComment());
+        if (event.getMovieOwnerId() != null) {
+            publish(USER_TOPIC + event.getMovieOwnerId(), "comment", event.getComment());
+        }
+    }
+
+    @EventListener
+    public void onUserFollowed(UserFollowedEvent event) {
+        publish(USER_TOPIC + event.getFollowingId(), "follower",
+                new NewFollowerResponse(event.getFollowerId(), event.getFollowerUsername()));
+    }
+
+    @Scheduled(fixedDelayString = "${live-updates.likes-flush-interval-ms:250}")
+    public void flushLikeCounts() {
+        if (pendingLikeCounts.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        for (Long movieId : new ArrayList<>(pendingLikeCounts.keySet())) {
+            Long count = pendingLikeCounts.remove(movieId);
+            if (count != null) {
+                counts.put(movieId, count);
+            }
+        }
+
+        Map<Long, Long> owners = Collections.emptyMap();
+        if (hasUserSubscribers()) {
+            owners = new HashMap<>();
+            for (Object[] row : movieRepository.findOwnerIdsByMovieIds(counts.keySet())) {
+                owners.put((Long) row[0], (Long) row[1]);
+            }
+        }
+
+        for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+            LikesCountResponse update = new LikesCountResponse(entry.getKey(), entry.getValue());
+            publish(MOVIE_TOPIC + entry.getKey(), "likes", update);
+            Long ownerId = owners.get(entry.getKey());
+            if (ownerId != null) {
+                publish(USER_TOPIC + ownerId, "likes", update);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${live-updates.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> subscribers : topics.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Set<Subscriber> subscribers : topics.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    private SseEmitter subscribe(String topic) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(topic, emitter, clientQueueSize);
+        topics.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        topics.computeIfPresent(subscriber.topic, (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private boolean hasUserSubscribers() {
+        return topics.keySet().stream().anyMatch(topic -> topic.startsWith(USER_TOPIC));
+    }
+
+    private void publish(String topic, String name, Object data) {
+        Set<Subscriber> subscribers = topics.get(topic);
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().name(name).data(data));
+        }
+    }
+
+    private class Subscriber {
+        private final String topic;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(String topic, SseEmitter emitter, int queueSize) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                // A client this far behind is disconnected rather than buffered; it resubscribes with a fresh stream token
+                logger.warn("Dropping slow live update subscriber on {}", topic);
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        unsubscribe(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
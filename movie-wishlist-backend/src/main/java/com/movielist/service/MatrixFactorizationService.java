@@ -0,0 +1,380 @@
+package com.movielist.service;
+
+import com.movielist.payload.AlsEvaluationResponse;
+import com.movielist.payload.AlsModelStatusResponse;
+import com.movielist.util.AlsTrainer;
+import com.movielist.util.LongIntHashMap;
+import com.movielist.util.SyntheticRatings;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Personalized ranking from a matrix factorization of the users' movie ratings. A batch job
+ * trains user and movie factor vectors with ALS and writes them to a model file, so a restart
+ * serves the last model right away; scoring a movie for a user is then a single dot product.
+ */
+@Service
+public class MatrixFactorizationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatrixFactorizationService.class);
+
+    private static final int MODEL_MAGIC = 0x414C5331;
+
+    // Offline evaluation runs inside the request, so the synthetic dataset is bounded
+    private static final int MAX_EVALUATION_USERS = 20_000;
+    private static final int MAX_EVALUATION_ITEMS = 20_000;
+    private static final int MAX_EVALUATION_RATINGS_PER_USER = 200;
+    private static final double HOLDOUT_SHARE = 0.1;
+
+    @Value("${recommendations.als.factors}")
+    private int factors;
+
+    @Value("${recommendations.als.iterations}")
+    private int iterations;
+
+    @Value("${recommendations.als.lambda}")
+    private float lambda;
+
+    @Value("${recommendations.als.model-file}")
+    private String modelFile;
+
+    @Value("${recommendations.parallelism}")
+    private int parallelism;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("backgroundJobExecutor")
+    private TaskExecutor backgroundJobExecutor;
+
+    private volatile Factors model;
+
+    private final AtomicBoolean training = new AtomicBoolean(false);
+
+    private volatile String lastError;
+
+    @PostConstruct
+    public void loadModel() {
+        Path path = Paths.get(modelFile);
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        try {
+            model = read(path);
+            logger.info("Loaded rating model from {}: {} users, {} movies", path, model.userIds.length, model.itemKeys.length);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable rating model {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${recommendations.als.initial-delay-ms}",
+            fixedDelayString = "${recommendations.als.train-interval-ms}")
+    public void scheduledTrain() {
+        if (training.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::train);
+        }
+    }
+
+    // Starts training in the background unless a run is already in progress
+    public AlsModelStatusResponse startTraining() {
+        if (training.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::train);
+        }
+        return getStatus();
+    }
+
+    public AlsModelStatusResponse getStatus() {
+        Factors current = model;
+        AlsModelStatusResponse status = new AlsModelStatusResponse();
+        status.setTraining(training.get());
+        status.setError(lastError);
+        if (current != null) {
+            status.setTrainedAt(current.trainedAt);
+            status.setTrainMillis(current.trainMillis);
+            status.setUsers(current.userIds.length);
+            status.setItems(current.itemKeys.length);
+            status.setRatings(current.ratings);
+            status.setFactors(current.factors.getFactors());
+        }
+        return status;
+    }
+
+    /**
+     * Orders items by the user's predicted rating, highest first. Movies the model has never seen
+     * score the global mean, and ties keep their original order; without a model or any ratings
+     * from the user the list is returned as given.
+     */
+    public <T> List<T> rankForUser(Long userId, List<T> items, Function<T, Long> tmdbIdOf, Function<T, String> titleOf) {
+        Factors current = model;
+        int user = current != null && userId != null ? current.userIndex.get(userId, -1) : -1;
+        if (user < 0 || items == null || items.size() < 2) {
+            return items;
+        }
+        float mean = current.factors.getMean();
+        float[] scores = new float[items.size()];
+        Integer[] order = new Integer[items.size()];
+        for (int index = 0; index < items.size(); index++) {
+            T item = items.get(index);
+            Integer movie = current.itemIndex.get(MovieKeys.key(tmdbIdOf.apply(item), titleOf.apply(item), current.aliases));
+            scores[index] = movie != null ? current.factors.predict(user, movie) : mean;
+            order[index] = index;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(scores[b], scores[a]));
+        List<T> ranked = new ArrayList<>(items.size());
+        for (Integer index : order) {
+            ranked.add(items.get(index));
+        }
+        return ranked;
+    }
+
+    // Trains on a synthetic dataset with a random holdout and reports RMSE against the mean-only baseline
+    public AlsEvaluationResponse evaluate(int users, int items, int ratingsPerUser, long seed) throws Exception {
+        SyntheticRatings data = SyntheticRatings.generate(
+                Math.max(1, Math.min(users, MAX_EVALUATION_USERS)),
+                Math.max(1, Math.min(items, MAX_EVALUATION_ITEMS)),
+                Math.max(1, Math.min(ratingsPerUser, MAX_EVALUATION_RATINGS_PER_USER)),
+                Math.max(1, factors / 2), 1.0, seed);
+
+        int count = data.getRatings().length;
+        Random random = new Random(seed + 1);
+        BitSet holdout = new BitSet(count);
+        for (int index = 0; index < count; index++) {
+            if (random.nextDouble() < HOLDOUT_SHARE) {
+                holdout.set(index);
+            }
+        }
+        int trainCount = count - holdout.cardinality();
+        int[] trainUsers = new int[trainCount];
+        int[] trainItems = new int[trainCount];
+        float[] trainRatings = new float[trainCount];
+        for (int index = 0, slot = 0; index < count; index++) {
+            if (!holdout.get(index)) {
+                trainUsers[slot] = data.getRatingUsers()[index];
+                trainItems[slot] = data.getRatingItems()[index];
+                trainRatings[slot++] = data.getRatings()[index];
+            }
+        }
+
+        long start = System.nanoTime();
+        AlsTrainer.Model trained = runTrainer(data.getUsers(), data.getItems(), trainUsers, trainItems, trainRatings, seed);
+        long trainMillis = (System.nanoTime() - start) / 1_000_000;
+
+        double squaredError = 0;
+        double baselineSquaredError = 0;
+        for (int index = holdout.nextSetBit(0); index >= 0; index = holdout.nextSetBit(index + 1)) {
+            float actual = data.getRatings()[index];
+            float predicted = Math.max(1f, Math.min(10f, trained.predict(data.getRatingUsers()[index], data.getRatingItems()[index])));
+            squaredError += (predicted - actual) * (predicted - actual);
+            baselineSquaredError += (trained.getMean() - actual) * (trained.getMean() - actual);
+        }
+        int testCount = holdout.cardinality();
+        return new AlsEvaluationResponse(data.getUsers(), data.getItems(), trainCount, testCount, factors, iterations,
+                trainMillis, testCount > 0 ? Math.sqrt(squaredError / testCount) : 0,
+                testCount > 0 ? Math.sqrt(baselineSquaredError / testCount) : 0);
+    }
+
+    private void train() {
+        long start = System.nanoTime();
+        try {
+            Map<String, Long> aliases = MovieKeys.loadAliases(jdbcTemplate);
+            LongIntHashMap userIndex = new LongIntHashMap();
+            List<Long> userIds = new ArrayList<>();
+            Map<String, Integer> itemIndex = new HashMap<>();
+            List<String> itemKeys = new ArrayList<>();
+            RatingBuffer ratings = new RatingBuffer();
+
+            jdbcTemplate.query("SELECT user_id, tmdb_id, title, rating FROM movies WHERE rating IS NOT NULL", rs -> {
+                long userId = rs.getLong(1);
+                int user = userIndex.get(userId, -1);
+                if (user < 0) {
+                    user = userIds.size();
+                    userIndex.put(userId, user);
+                    userIds.add(userId);
+                }
+                String key = MovieKeys.key(rs.getObject(2, Long.class), rs.getString(3), aliases);
+                Integer item = itemIndex.get(key);
+                if (item == null) {
+                    item = itemKeys.size();
+                    itemIndex.put(key, item);
+                    itemKeys.add(key);
+                }
+                ratings.add(user, item, rs.getInt(4));
+            });
+
+            AlsTrainer.Model trained = runTrainer(userIds.size(), itemKeys.size(),
+                    ratings.users(), ratings.items(), ratings.values(), System.nanoTime());
+
+            Factors built = new Factors();
+            built.factors = trained;
+            built.aliases = aliases;
+            built.userIds = userIds.stream().mapToLong(Long::longValue).toArray();
+            built.userIndex = userIndex;
+            built.itemKeys = itemKeys.toArray(new String[0]);
+            built.itemIndex = itemIndex;
+            built.ratings = ratings.size;
+            built.trainedAt = Instant.now();
+            built.trainMillis = (System.nanoTime() - start) / 1_000_000;
+
+            write(built, Paths.get(modelFile));
+            model = built;
+            lastError = null;
+            logger.info("Rating model trained in {} ms: {} users, {} movies, {} ratings",
+                    built.trainMillis, built.userIds.length, built.itemKeys.length, built.ratings);
+        } catch (Exception e) {
+            logger.error("Rating model training failed: {}", e.getMessage());
+            lastError = e.getMessage();
+        } finally {
+            training.set(false);
+        }
+    }
+
+    private AlsTrainer.Model runTrainer(int users, int items, int[] ratingUsers, int[] ratingItems, float[] ratings,
+                                        long seed) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        try {
+            return new AlsTrainer(factors, iterations, lambda, pool).train(users, items, ratingUsers, ratingItems, ratings, seed);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void write(Factors built, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "als", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MODEL_MAGIC);
+            out.writeInt(built.factors.getFactors());
+            out.writeFloat(built.factors.getMean());
+            out.writeLong(built.trainedAt.toEpochMilli());
+            out.writeLong(built.trainMillis);
+            out.writeInt(built.ratings);
+            out.writeInt(built.userIds.length);
+            for (long userId : built.userIds) {
+                out.writeLong(userId);
+            }
+            out.writeInt(built.itemKeys.length);
+            for (String key : built.itemKeys) {
+                out.writeUTF(key);
+            }
+            out.writeInt(built.aliases.size());
+            for (Map.Entry<String, Long> alias : built.aliases.entrySet()) {
+                out.writeUTF(alias.getKey());
+                out.writeLong(alias.getValue());
+            }
+            for (float value : built.factors.getUserFactors()) {
+                out.writeFloat(value);
+            }
+            for (float value : built.factors.getItemFactors()) {
+                out.writeFloat(value);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Factors read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MODEL_MAGIC) {
+                throw new IOException("Not a rating model file");
+            }
+            int factorCount = in.readInt();
+            float mean = in.readFloat();
+            Factors loaded = new Factors();
+            loaded.trainedAt = Instant.ofEpochMilli(in.readLong());
+            loaded.trainMillis = in.readLong();
+            loaded.ratings = in.readInt();
+
+            loaded.userIds = new long[in.readInt()];
+            loaded.userIndex = new LongIntHashMap(loaded.userIds.length);
+            for (int user = 0; user < loaded.userIds.length; user++) {
+                loaded.userIds[user] = in.readLong();
+                loaded.userIndex.put(loaded.userIds[user], user);
+            }
+            loaded.itemKeys = new String[in.readInt()];
+            loaded.itemIndex = new HashMap<>();
+            for (int item = 0; item < loaded.itemKeys.length; item++) {
+                loaded.itemKeys[item] = in.readUTF();
+                loaded.itemIndex.put(loaded.itemKeys[item], item);
+            }
+            int aliasCount = in.readInt();
+            loaded.aliases = new HashMap<>();
+            for (int alias = 0; alias < aliasCount; alias++) {
+                loaded.aliases.put(in.readUTF(), in.readLong());
+            }
+
+            float[] userFactors = new float[loaded.userIds.length * factorCount];
+            for (int index = 0; index < userFactors.length; index++) {
+                userFactors[index] = in.readFloat();
+            }
+            float[] itemFactors = new float[loaded.itemKeys.length * factorCount];
+            for (int index = 0; index < itemFactors.length; index++) {
+                itemFactors[index] = in.readFloat();
+            }
+            loaded.factors = new AlsTrainer.Model(factorCount, mean, userFactors, itemFactors);
+            return loaded;
+        }
+    }
+
+    private static class Factors {
+        private AlsTrainer.Model factors;
+        private Map<String, Long> aliases;
+        private long[] userIds;
+        private LongIntHashMap userIndex;
+        private String[] itemKeys;
+        private Map<String, Integer> itemIndex;
+        private int ratings;
+        private Instant trainedAt;
+        private long trainMillis;
+    }
+
+    // Growable parallel arrays of (user, item, rating) triples
+    private static class RatingBuffer {
+        private int[] users = new int[1024];
+        private int[] items = new int[1024];
+        private float[] values = new float[1024];
+        private int size;
+
+        private void add(int user, int item, float value) {
+            if (size == users.length) {
+                users = Arrays.copyOf(users, size * 2);
+                items = Arrays.copyOf(items, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            users[size] = user;
+            items[size] = item;
+            values[size++] = value;
+        }
+
+        private int[] users() {
+            return Arrays.copyOf(users, size);
+        }
+
+        private int[] items() {
+            return Arrays.copyOf(items, size);
+        }
+
+        private float[] values() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
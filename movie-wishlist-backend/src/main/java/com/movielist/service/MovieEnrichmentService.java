@@ -0,0 +1,303 @@
+package com.movielist.service;
+
+import com.movielist.exception.TmdbUnavailableException;
+import com.movielist.payload.EnrichmentStatusResponse;
+import com.movielist.payload.TmdbMovieDetails;
+import com.movielist.payload.TmdbMovieSummary;
+import com.movielist.payload.TmdbPageResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fills in runtime, genre, poster and release year for library movies that were added without
+ * them. Incomplete rows are read in id-ordered batches, looked up on TMDB concurrently through
+ * the async client (so the shared rate limiter and circuit breaker apply), and written back
+ * with one batched update per batch. Every processed row is stamped with
+ * enrichment_attempted_at, so a pass can stop at any point and the next one resumes where it
+ * left off; movies TMDB does not know are retried only after the retry interval.
+ */
+@Service
+public class MovieEnrichmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieEnrichmentService.class);
+
+    private static final String INCOMPLETE =
+            "(runtime IS NULL OR genre IS NULL OR poster_url IS NULL OR release_year IS NULL) " +
+            "AND (enrichment_attempted_at IS NULL OR enrichment_attempted_at < ?)";
+
+    // Only fills columns that are still empty; values the user entered are never replaced
+    private static final String UPDATE_SQL =
+            "UPDATE movies SET runtime = COALESCE(runtime, ?), genre = COALESCE(genre, ?), " +
+            "poster_url = COALESCE(poster_url, ?), release_year = COALESCE(release_year, ?), " +
+            "tmdb_id = COALESCE(tmdb_id, ?), enrichment_attempted_at = ? WHERE id = ?";
+
+    @Value("${movies.enrichment.batch-size}")
+    private int batchSize;
+
+    @Value("${movies.enrichment.parallelism}")
+    private int parallelism;
+
+    @Value("${movies.enrichment.retry-after}")
+    private Duration retryAfter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TmdbService tmdbService;
+
+    @Autowired
+    private LibraryFacetIndex libraryFacetIndex;
+
+    @Autowired
+    private SimilarMovieIndex similarMovieIndex;
+
+    @Autowired
+    @Qualifier("backgroundJobExecutor")
+    private TaskExecutor backgroundJobExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final AtomicReference<EnrichmentStatusResponse> lastRun = new AtomicReference<>(new EnrichmentStatusResponse());
+
+    @Scheduled(initialDelayString = "${movies.enrichment.initial-delay-ms}",
+            fixedDelayString = "${movies.enrichment.interval-ms}")
+    public void scheduledRun() {
+        if (running.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::run);
+        }
+    }
+
+    // Starts a pass in the background unless one is already running
+    public EnrichmentStatusResponse start() {
+        if (running.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::run);
+        }
+        return getStatus();
+    }
+
+    public EnrichmentStatusResponse getStatus() {
+        EnrichmentStatusResponse run = lastRun.get();
+        Long remaining = jdbcTemplate.queryForObject("SELECT count(*) FROM movies WHERE " + INCOMPLETE,
+                Long.class, Timestamp.from(Instant.now().minus(retryAfter)));
+        return new EnrichmentStatusResponse(running.get(), run.getStartedAt(), run.getFinishedAt(), run.getScanned(),
+                run.getEnriched(), run.getNotFound(), run.getFailed(), run.getLastMovieId(), run.getPausedReason(),
+                remaining != null ? remaining : 0);
+    }
+
+    private void run() {
+        EnrichmentStatusResponse status = new EnrichmentStatusResponse();
+        status.setRunning(true);
+        status.setStartedAt(Instant.now());
+        lastRun.set(status);
+        try {
+            Timestamp retryBefore = Timestamp.from(Instant.now().minus(retryAfter));
+            long lastId = 0;
+            while (status.getPausedReason() == null) {
+                List<MovieRow> batch = jdbcTemplate.query(
+                        "SELECT id, user_id, title, release_year, tmdb_id FROM movies WHERE " + INCOMPLETE +
+                        " AND id > ? ORDER BY id LIMIT ?",
+                        (rs, rowNum) -> new MovieRow(rs.getLong("id"), rs.getLong("user_id"), rs.getString("title"),
+                                rs.getObject("release_year", Integer.class), rs.getObject("tmdb_id", Long.class)),
+                        retryBefore, lastId, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                processBatch(batch, status);
+                lastId = batch.get(batch.size() - 1).id;
+                status.setLastMovieId(lastId);
+            }
+            logger.info("Movie enrichment pass finished: {} scanned, {} enriched, {} not found, {} failed{}",
+                    status.getScanned(), status.getEnriched(), status.getNotFound(), status.getFailed(),
+                    status.getPausedReason() != null ? " (paused: " + status.getPausedReason() + ")" : "");
+        } catch (Exception e) {
+            logger.error("Movie enrichment pass failed: {}", e.getMessage());
+            status.setPausedReason(e.getMessage());
+        } finally {
+            status.setFinishedAt(Instant.now());
+            status.setRunning(false);
+            running.set(false);
+        }
+    }
+
+    private void processBatch(List<MovieRow> batch, EnrichmentStatusResponse status) throws InterruptedException {
+        Semaphore permits = new Semaphore(parallelism);
+        Queue<Result> results = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> lookups = new ArrayList<>(batch.size());
+
+        AtomicBoolean unavailable = new AtomicBoolean(false);
+
+        for (MovieRow row : batch) {
+            permits.acquire();
+            if (unavailable.get()) {
+                permits.release();
+                break;
+            }
+            CompletableFuture<TmdbMovieDetails> future;
+            try {
+                future = lookUp(row);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            lookups.add(future.handle((details, error) -> {
+                if (error instanceof TmdbUnavailableException || (error != null && error.getCause() instanceof TmdbUnavailableException)) {
+                    unavailable.set(true);
+                }
+                results.add(new Result(row, details, error));
+                permits.release();
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).join();
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Result> processed = new ArrayList<>();
+        for (Result result : results) {
+            Throwable cause = result.error instanceof CompletionException && result.error.getCause() != null
+                    ? result.error.getCause() : result.error;
+            if (cause instanceof TmdbUnavailableException) {
+                // Leave the row unstamped so the next pass picks it up, and stop after this batch
+                status.setPausedReason(cause.getMessage());
+                continue;
+            }
+            status.setScanned(status.getScanned() + 1);
+            if (cause != null) {
+                status.setFailed(status.getFailed() + 1);
+            } else if (result.details == null) {
+                status.setNotFound(status.getNotFound() + 1);
+            } else {
+                status.setEnriched(status.getEnriched() + 1);
+            }
+            processed.add(result);
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_SQL, processed, processed.size(), (ps, result) -> {
+            TmdbMovieDetails details = result.details;
+            ps.setObject(1, details != null ? details.getRuntime() : null, Types.INTEGER);
+            ps.setString(2, details != null ? primaryGenre(details) : null);
+            ps.setString(3, details != null && details.getPosterPath() != null
+                    ? tmdbService.posterUrl("w500", details.getPosterPath()) : null);
+            ps.setObject(4, details != null ? releaseYear(details.getReleaseDate()) : null, Types.INTEGER);
+            ps.setObject(5, details != null ? details.getId() : null, Types.BIGINT);
+            ps.setTimestamp(6, now);
+            ps.setLong(7, result.row.id);
+        });
+
+        processed.stream()
+                .filter(result -> result.details != null)
+                .map(result -> result.row.userId)
+                .distinct()
+                .forEach(libraryFacetIndex::evict);
+
+        // Filled-in genre, runtime and year change the movie's features; a new TMDB link changes its key too
+        for (Result result : processed) {
+            if (result.details != null) {
+                similarMovieIndex.movieChanged(result.row.tmdbId, result.row.title);
+                if (result.row.tmdbId == null && result.details.getId() != null) {
+                    similarMovieIndex.movieChanged(result.details.getId(), result.row.title);
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<TmdbMovieDetails> lookUp(MovieRow row) {
+        if (row.tmdbId != null) {
+            return tmdbService.getMovieDetailsAsync(row.tmdbId);
+        }
+        if (row.title == null || row.title.isBlank()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return tmdbService.searchMoviesAsync(row.title, 1)
+                .thenCompose(page -> {
+                    Long tmdbId = bestMatch(page, row);
+                    return tmdbId != null ? tmdbService.getMovieDetailsAsync(tmdbId) : CompletableFuture.completedFuture(null);
+                });
+    }
+
+    // Requires the same normalized title; with a known year, prefer the closest release year
+    private Long bestMatch(TmdbPageResponse page, MovieRow row) {
+        if (page == null || page.getResults() == null) {
+            return null;
+        }
+        String title = TitleSuggestService.normalize(row.title);
+        TmdbMovieSummary best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (TmdbMovieSummary candidate : page.getResults()) {
+            if (!title.equals(TitleSuggestService.normalize(candidate.getTitle()))) {
+                continue;
+            }
+            Integer year = releaseYear(candidate.getReleaseDate());
+            int distance = row.releaseYear == null ? 0 : year == null ? 100 : Math.abs(year - row.releaseYear);
+            if (row.releaseYear != null && distance > 1) {
+                continue;
+            }
+            if (distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+            }
+        }
+        return best != null ? best.getId() : null;
+    }
+
+    private String primaryGenre(TmdbMovieDetails details) {
+        return details.getGenres() == null || details.getGenres().isEmpty() ? null : details.getGenres().get(0).getName();
+    }
+
+    private Integer releaseYear(String releaseDate) {
+        if (releaseDate == null || releaseDate.length() < 4) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(releaseDate.substring(0, 4));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static class MovieRow {
+        private final long id;
+        private final long userId;
+        private final String title;
+        private final Integer releaseYear;
+        private final Long tmdbId;
+
+        private MovieRow(long id, long userId, String title, Integer releaseYear, Long tmdbId) {
+            this.id = id;
+            this.userId = userId;
+            this.title = title;
+            this.releaseYear = releaseYear;
+            this.tmdbId = tmdbId;
+        }
+    }
+
+    private static class Result {
+        private final MovieRow row;
+        private final TmdbMovieDetails details;
+        private final Throwable error;
+
+        private Result(MovieRow row, TmdbMovieDetails details, Throwable error) {
+            this.row = row;
+            this.details = details;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.movielist.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Canonical keys for movies across users' copies, shared by the recommendation models. A copy
+ * linked to TMDB is keyed by its TMDB id; an unlinked copy by its normalized title, unless that
+ * title belongs to exactly one linked movie, in which case it joins that movie.
+ */
+final class MovieKeys {
+
+    private static final String TMDB_PREFIX = "tmdb:";
+    private static final String TITLE_PREFIX = "title:";
+
+    private MovieKeys() {
+    }
+
+    // Normalized title -> TMDB id, for titles that map to a single TMDB id
+    static Map<String, Long> loadAliases(JdbcTemplate jdbcTemplate) {
+        Map<String, Long> aliases = new HashMap<>();
+        jdbcTemplate.query("SELECT DISTINCT tmdb_id, title FROM movies WHERE tmdb_id IS NOT NULL", rs -> {
+            aliases.merge(TitleSuggestService.normalize(rs.getString(2)), rs.getLong(1),
+                    (existing, added) -> existing.equals(added) ? existing : -1L);
+        });
+        aliases.values().removeIf(tmdbId -> tmdbId < 0);
+        return aliases;
+    }
+
+    static String key(Long tmdbId, String title, Map<String, Long> aliases) {
+        if (tmdbId != null) {
+            return TMDB_PREFIX + tmdbId;
+        }
+        String normalized = TitleSuggestService.normalize(title != null ? title : "");
+        Long alias = aliases.get(normalized);
+        return alias != null ? TMDB_PREFIX + alias : TITLE_PREFIX + normalized;
+    }
+
+    // TMDB id behind a key, or null for title-only keys
+    static Long tmdbId(String key) {
+        return key.startsWith(TMDB_PREFIX) ? Long.valueOf(key.substring(TMDB_PREFIX.length())) : null;
+    }
+}
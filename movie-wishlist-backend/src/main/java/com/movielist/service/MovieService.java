@@ -1,8 +1,12 @@
 package com.movielist.service;
 
+import com.movielist.entity.ActivityEvent;
 import com.movielist.entity.Movie;
 import com.movielist.entity.User;
+import com.movielist.event.MovieStatusChangedEvent;
 import com.movielist.exception.ResourceNotFoundException;
+import com.movielist.payload.LibraryFilter;
+import com.movielist.payload.LibraryPageResponse;
 import com.movielist.payload.MovieRequest;
 import com.movielist.payload.MovieResponse;
 import com.movielist.repository.CommentRepository;
@@ -10,16 +14,21 @@ import com.movielist.repository.LikeRepository;
 import com.movielist.repository.MovieRepository;
 import com.movielist.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class MovieService {
 
+    private static final int MAX_LIBRARY_PAGE_SIZE = 100;
+
     @Autowired
     private MovieRepository movieRepository;
 
@@ -42,6 +51,26 @@ public class MovieService {
         return movies.stream().map(this::convertToMovieResponse).collect(Collectors.toList());
     }
 
+    public LibraryPageResponse getLibrary(Long userId, LibraryFilter filter) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        filter.setPage(Math.max(0, filter.getPage()));
+        filter.setSize(Math.max(1, Math.min(filter.getSize(), MAX_LIBRARY_PAGE_SIZE)));
+
+        LibraryFacetIndex.Result result = libraryFacetIndex.query(userId, filter);
+
+        Map<Long, Movie> movies = movieRepository.findAllById(result.getMovieIds()).stream()
+                .collect(Collectors.toMap(Movie::getId, movie -> movie));
+        List<MovieResponse> page = result.getMovieIds().stream()
+                .map(movies::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToMovieResponse)
+                .collect(Collectors.toList());
+
+        return new LibraryPageResponse(page, result.getTotal(), filter.getPage(), filter.getSize(), result.getFacets());
+    }
+
     public MovieResponse getMovieById(Long id) {
         Movie movie = movieRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie", "id", id));
@@ -55,10 +84,16 @@ public class MovieService {
         movie.setReleaseYear(movieRequest.getReleaseYear());
         movie.setRuntime(movieRequest.getRuntime());
         movie.setPosterUrl(movieRequest.getPosterUrl());
+        movie.setTmdbId(movieRequest.getTmdbId());
         movie.setStatus(Movie.Status.WISHLIST);
         movie.setUser(user);
 
         Movie savedMovie = movieRepository.save(movie);
+        libraryFacetIndex.evict(user.getId());
+        feedService.publish(user, ActivityEvent.Type.MOVIE_ADDED, savedMovie, null);
+        titleSuggestService.recordLibraryTitle(savedMovie.getTitle());
+        similarMovieIndex.movieAdded(savedMovie);
+        eventPublisher.publishEvent(new MovieStatusChangedEvent(user.getId(), savedMovie.getId(), Movie.Status.WISHLIST));
         return convertToMovieResponse(savedMovie);
     }
 
@@ -70,18 +105,33 @@ public class MovieService {
             throw new RuntimeException("You don't have permission to update this movie");
         }
 
+        Long previousTmdbId = movie.getTmdbId();
+        String previousTitle = movie.getTitle();
         movie.setTitle(movieRequest.getTitle());
         movie.setGenre(movieRequest.getGenre());
         movie.setReleaseYear(movieRequest.getReleaseYear());
         movie.setRuntime(movieRequest.getRuntime());
         movie.setPosterUrl(movieRequest.getPosterUrl());
+        if (movieRequest.getTmdbId() != null) {
+            movie.setTmdbId(movieRequest.getTmdbId());
+        }
 
+        boolean rated = false;
         if (movie.getStatus() == Movie.Status.WATCHED) {
+            rated = movieRequest.getRating() != null && !movieRequest.getRating().equals(movie.getRating());
             movie.setRating(movieRequest.getRating());
             movie.setReview(movieRequest.getReview());
         }
 
         Movie updatedMovie = movieRepository.save(movie);
+        libraryFacetIndex.evict(user.getId());
+        if (!Objects.equals(previousTmdbId, updatedMovie.getTmdbId()) || !Objects.equals(previousTitle, updatedMovie.getTitle())) {
+            similarMovieIndex.movieChanged(previousTmdbId, previousTitle);
+        }
+        similarMovieIndex.movieChanged(updatedMovie.getTmdbId(), updatedMovie.getTitle());
+        if (rated) {
+            feedService.publish(user, ActivityEvent.Type.MOVIE_RATED, updatedMovie, String.valueOf(updatedMovie.getRating()));
+        }
         return convertToMovieResponse(updatedMovie);
     }
 
@@ -98,6 +148,11 @@ public class MovieService {
         movie.setReview(review);
 
         Movie updatedMovie = movieRepository.save(movie);
+        libraryFacetIndex.evict(user.getId());
+        feedService.publish(user, ActivityEvent.Type.MOVIE_WATCHED, updatedMovie, rating != null ? String.valueOf(rating) : null);
+        similarUserIndex.movieWatched(user.getId(), updatedMovie);
+        similarMovieIndex.movieChanged(updatedMovie.getTmdbId(), updatedMovie.getTitle());
+        eventPublisher.publishEvent(new MovieStatusChangedEvent(user.getId(), updatedMovie.getId(), Movie.Status.WATCHED));
         
         // Check if user earned any badges
         badgeService.checkAndAwardBadges(user);
@@ -114,6 +169,8 @@ public class MovieService {
         }
 
         movieRepository.delete(movie);
+        libraryFacetIndex.evict(user.getId());
+        similarMovieIndex.movieDeleted(movie);
     }
 
     public List<MovieResponse> getUserMovies(Long userId, Movie.Status status) {
@@ -138,6 +195,7 @@ public class MovieService {
         response.setReleaseYear(movie.getReleaseYear());
         response.setRuntime(movie.getRuntime());
         response.setPosterUrl(movie.getPosterUrl());
+        response.setTmdbId(movie.getTmdbId());
         response.setStatus(movie.getStatus());
         response.setRating(movie.getRating());
         response.setReview(movie.getReview());
@@ -145,7 +203,7 @@ public class MovieService {
         response.setUsername(movie.getUser().getUsername());
         
         // Count likes and comments
-        response.setLikesCount(likeRepository.countLikesByMovieId(movie.getId()));
+        response.setLikesCount(likeCounterBuffer.getLikesCount(movie.getId(), movie.getLikesCount()));
         response.setCommentsCount(commentRepository.countCommentsByMovieId(movie.getId()));
         
         // Check if current user liked this movie
@@ -162,4 +220,25 @@ public class MovieService {
     
     @Autowired
     private BadgeService badgeService;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private LikeCounterBuffer likeCounterBuffer;
+
+    @Autowired
+    private TitleSuggestService titleSuggestService;
+
+    @Autowired
+    private SimilarMovieIndex similarMovieIndex;
+
+    @Autowired
+    private SimilarUserIndex similarUserIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LibraryFacetIndex libraryFacetIndex;
 }
\ No newline at end of file
@@ -0,0 +1,300 @@
+package com.movielist.service;
+
+import com.movielist.exception.ApiException;
+import com.movielist.exception.TmdbUnavailableException;
+import com.movielist.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Same-origin proxy for TMDB poster images. Each poster is downloaded once at the largest
+ * supported width; smaller sizes are resized locally from that copy. Files live in a
+ * size-bounded directory evicted in least-recently-used order.
+ */
+@Service
+public class PosterCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PosterCacheService.class);
+
+    private static final String SOURCE_SIZE = "w780";
+
+    private static final Map<String, Integer> WIDTHS = Map.of(
+            "w92", 92, "w154", 154, "w185", 185, "w342", 342, "w500", 500, "w780", 780);
+
+    // TMDB image file names are content hashes such as "kqjL17yufvn9OVLyXYpvtyrFfak.jpg"
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}\\.(jpg|jpeg|png)");
+
+    // Entries served this recently are not evicted, so a file is never deleted mid-response
+    private static final long EVICTION_GRACE_MS = 10_000;
+
+    @Value("${tmdb.images.cdn-base-url}")
+    private String cdnBaseUrl;
+
+    @Value("${tmdb.images.cache-dir}")
+    private String cacheDir;
+
+    @Value("${tmdb.images.cache-max-bytes}")
+    private long maxBytes;
+
+    @Value("${tmdb.http.request-timeout}")
+    private Duration requestTimeout;
+
+    @Autowired
+    private HttpClient httpClient;
+
+    private Path root;
+
+    // Access-ordered index of cached files; guarded by its own monitor
+    private final LinkedHashMap<String, CachedFile> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final SingleFlight<Path> inFlight = new SingleFlight<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Files.createDirectories(Paths.get(cacheDir)).toAbsolutePath();
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root, 2)) {
+            files = stream.filter(Files::isRegularFile).toList();
+        }
+        // Rebuild the LRU order from modification times, oldest first
+        List<CachedFile> existing = new ArrayList<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(".tmp")) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            existing.add(new CachedFile(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+        }
+        existing.sort(Comparator.comparingLong(file -> file.lastAccess));
+        synchronized (index) {
+            for (CachedFile file : existing) {
+                index.put(root.relativize(file.path).toString(), file);
+                totalBytes += file.bytes;
+            }
+        }
+        evictIfNeeded();
+    }
+
+    public boolean isSupported(String size, String fileName) {
+        return WIDTHS.containsKey(size) && FILE_NAME.matcher(fileName).matches();
+    }
+
+    public Path getPoster(String size, String fileName) {
+        if (!isSupported(size, fileName)) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Unsupported poster size or file name");
+        }
+        Path cached = lookUp(size, fileName);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return inFlight.execute(size + "/" + fileName, () -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    return store(size, fileName);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, Runnable::run)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TmdbUnavailableException("Could not load poster: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Strong validator: a TMDB file name never changes content and resizing is deterministic
+    public String etag(String size, String fileName, long length) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((size + "/" + fileName + ":" + length).getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String contentType(String fileName) {
+        return fileName.endsWith(".png") ? "image/png" : "image/jpeg";
+    }
+
+    private Path lookUp(String size, String fileName) {
+        String key = size + "/" + fileName;
+        synchronized (index) {
+            CachedFile file = index.get(key);
+            if (file == null) {
+                return null;
+            }
+            file.lastAccess = System.currentTimeMillis();
+            return file.path;
+        }
+    }
+
+    private Path store(String size, String fileName) throws IOException {
+        // Another caller may have finished between our lookup and joining the flight
+        Path cached = lookUp(size, fileName);
+        if (cached != null) {
+            return cached;
+        }
+        Path source = lookUp(SOURCE_SIZE, fileName);
+        byte[] sourceBytes;
+        if (source != null) {
+            sourceBytes = Files.readAllBytes(source);
+        } else {
+            sourceBytes = download(fileName);
+            source = write(SOURCE_SIZE, fileName, sourceBytes);
+        }
+        if (SOURCE_SIZE.equals(size)) {
+            return source;
+        }
+        return write(size, fileName, resize(sourceBytes, WIDTHS.get(size), fileName));
+    }
+
+    private byte[] download(String fileName) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(cdnBaseUrl + "/" + SOURCE_SIZE + "/" + fileName))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading poster", e);
+        }
+        if (response.statusCode() == 404) {
+            throw new ApiException(HttpStatus.NOT_FOUND, "Poster not found: " + fileName);
+        }
+        if (response.statusCode() >= 400) {
+            throw new TmdbUnavailableException("Image CDN returned " + response.statusCode() + " for " + fileName);
+        }
+        return response.body();
+    }
+
+    private byte[] resize(byte[] sourceBytes, int width, String fileName) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(sourceBytes));
+        if (source == null) {
+            throw new IOException("Unreadable poster image " + fileName);
+        }
+        if (source.getWidth() <= width) {
+            return sourceBytes;
+        }
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+        boolean png = fileName.endsWith(".png");
+        BufferedImage target = new BufferedImage(width, height, png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (png) {
+            ImageIO.write(target, "png", output);
+        } else {
+            writeJpeg(target, output);
+        }
+        return output.toByteArray();
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream output) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(0.85f);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private Path write(String size, String fileName, byte[] bytes) throws IOException {
+        Path dir = Files.createDirectories(root.resolve(size));
+        Path file = dir.resolve(fileName);
+        Path temp = Files.createTempFile(dir, "poster", ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized (index) {
+            CachedFile previous = index.put(size + "/" + fileName, new CachedFile(file, bytes.length, System.currentTimeMillis()));
+            totalBytes += bytes.length - (previous != null ? previous.bytes : 0);
+        }
+        evictIfNeeded();
+        return file;
+    }
+
+    private void evictIfNeeded() {
+        List<Path> victims = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (index) {
+            Iterator<CachedFile> iterator = index.values().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                CachedFile file = iterator.next();
+                if (now - file.lastAccess < EVICTION_GRACE_MS) {
+                    // Entries are in access order, so everything after this one is recent too
+                    break;
+                }
+                iterator.remove();
+                totalBytes -= file.bytes;
+                victims.add(file.path);
+            }
+        }
+        for (Path victim : victims) {
+            try {
+                Files.deleteIfExists(victim);
+            } catch (IOException e) {
+                logger.debug("Could not delete cached poster {}: {}", victim, e.getMessage());
+            }
+        }
+    }
+
+    private static class CachedFile {
+        private final Path path;
+        private final long bytes;
+        private volatile long lastAccess;
+
+        private CachedFile(Path path, long bytes, long lastAccess) {
+            this.path = path;
+            this.bytes = bytes;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.movielist.service;
+
+import com.movielist.payload.RecommendationResponse;
+import com.movielist.util.TopK;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+@Service
+public class RecommendationService {
+
+    private static final int MAX_RECOMMENDATIONS = 50;
+
+    // Only the most recent interactions shape the profile, which bounds the work per request
+    private static final int MAX_PROFILE_SIZE = 500;
+
+    @Autowired
+    private ItemSimilarityIndex itemSimilarityIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Scores every neighbour of the user's movies by sum of profile weight times similarity
+    public List<RecommendationResponse> recommendForUser(Long userId, int limit) {
+        ItemSimilarityIndex.Model model = itemSimilarityIndex.getModel();
+        if (model == null) {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, Float> profile = new HashMap<>();
+        Set<Integer> owned = new HashSet<>();
+        jdbcTemplate.query("SELECT tmdb_id, title, status, rating FROM movies WHERE user_id = ? ORDER BY id DESC LIMIT ?",
+                rs -> {
+                    int item = model.itemOf(rs.getObject(1, Long.class), rs.getString(2));
+                    if (item < 0) {
+                        return;
+                    }
+                    owned.add(item);
+                    float weight = ItemSimilarityIndex.ownWeight(
+                            ItemSimilarityIndex.ownCode(rs.getString(3), rs.getObject(4, Integer.class)));
+                    profile.merge(item, weight, Math::max);
+                }, userId, MAX_PROFILE_SIZE);
+        jdbcTemplate.query("SELECT m.tmdb_id, m.title FROM likes l JOIN movies m ON m.id = l.movie_id " +
+                        "WHERE l.user_id = ? ORDER BY l.id DESC LIMIT ?",
+                rs -> {
+                    int item = model.itemOf(rs.getObject(1, Long.class), rs.getString(2));
+                    if (item >= 0) {
+                        profile.merge(item, ItemSimilarityIndex.likeWeight(), Math::max);
+                    }
+                }, userId, MAX_PROFILE_SIZE);
+
+        Map<Integer, Candidate> candidates = new HashMap<>();
+        for (Map.Entry<Integer, Float> entry : profile.entrySet()) {
+            float weight = entry.getValue();
+            if (weight <= 0f) {
+                continue;
+            }
+            ItemSimilarityIndex.Neighbours neighbours = model.neighbours(entry.getKey());
+            for (int index = 0; index < neighbours.size(); index++) {
+                int item = neighbours.item(index);
+                if (owned.contains(item)) {
+                    continue;
+                }
+                float contribution = weight * neighbours.score(index);
+                Candidate candidate = candidates.computeIfAbsent(item, key -> new Candidate());
+                candidate.score += contribution;
+                if (contribution > candidate.bestContribution) {
+                    candidate.bestContribution = contribution;
+                    candidate.source = entry.getKey();
+                }
+            }
+        }
+
+        int size = Math.max(1, Math.min(limit, MAX_RECOMMENDATIONS));
+        TopK top = new TopK(size);
+        candidates.forEach((item, candidate) -> top.add(item, candidate.score));
+        int[] items = new int[top.size()];
+        float[] scores = new float[top.size()];
+        int count = top.drainDescending(items, scores);
+
+        List<RecommendationResponse> recommendations = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            int item = items[index];
+            recommendations.add(new RecommendationResponse(model.tmdbId(item), model.title(item), model.genre(item),
+                    model.releaseYear(item), model.posterUrl(item), scores[index],
+                    model.title(candidates.get(item).source)));
+        }
+        return recommendations;
+    }
+
+    private static class Candidate {
+        private float score;
+        private float bestContribution;
+        private int source;
+    }
+}
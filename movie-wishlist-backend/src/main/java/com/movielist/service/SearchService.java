@@ -0,0 +1,138 @@
+package com.movielist.service;
+
+import com.movielist.exception.ApiException;
+import com.movielist.payload.SearchPageResponse;
+import com.movielist.payload.SearchResultResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class SearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    // Matches are delimited with control characters and turned into <mark> tags only after the text is escaped
+    private static final String MATCH_START = "\u0002";
+    private static final String MATCH_END = "\u0003";
+
+    private static final String HEADLINE_OPTIONS =
+            "'MaxFragments=2, MaxWords=20, MinWords=5, StartSel=\"" + MATCH_START + "\", StopSel=\"" + MATCH_END + "\"'";
+
+    // Drops any delimiter characters already present in user text so they cannot forge a highlight
+    private static final String STRIP_DELIMITERS = "translate(%s, chr(2) || chr(3), '')";
+
+    // Matches are ranked inside the user's own rows first; snippets are only built for the returned page
+    private static final String SEARCH_SQL =
+            "WITH q AS (SELECT websearch_to_tsquery('english', :query) AS query), " +
+            "hits AS (" +
+            "SELECT 'MOVIE' AS type, m.id AS id, m.id AS movie_id, ts_rank_cd(m.search_vector, q.query)::float8 AS rank " +
+            "FROM movies m, q WHERE m.user_id = :userId AND m.search_vector @@ q.query " +
+            "UNION ALL " +
+            "SELECT 'COMMENT', c.id, c.movie_id, ts_rank_cd(c.search_vector, q.query)::float8 " +
+            "FROM comments c, q WHERE c.user_id = :userId AND c.search_vector @@ q.query), " +
+            "page AS (SELECT * FROM hits %s ORDER BY rank DESC, type DESC, id DESC LIMIT :limit) " +
+            "SELECT p.type, p.id, p.movie_id, p.rank, mv.title, " +
+            "CASE WHEN p.type = 'MOVIE' " +
+            "THEN ts_headline('english', " + String.format(STRIP_DELIMITERS, "coalesce(nullif(mv.review, ''), mv.title)") +
+            ", q.query, " + HEADLINE_OPTIONS + ") " +
+            "ELSE ts_headline('english', " + String.format(STRIP_DELIMITERS, "c.content") +
+            ", q.query, " + HEADLINE_OPTIONS + ") END AS snippet " +
+            "FROM page p CROSS JOIN q JOIN movies mv ON mv.id = p.movie_id " +
+            "LEFT JOIN comments c ON p.type = 'COMMENT' AND c.id = p.id " +
+            "ORDER BY p.rank DESC, p.type DESC, p.id DESC";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SearchPageResponse search(Long userId, String query, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            return new SearchPageResponse(Collections.emptyList(), null);
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("userId", userId)
+                .addValue("limit", pageSize);
+
+        String keyset = "";
+        if (cursor != null && !cursor.isBlank()) {
+            SearchCursor after = decodeCursor(cursor);
+            keyset = "WHERE (rank, type, id) < (:cursorRank, :cursorType, :cursorId)";
+            params.addValue("cursorRank", after.rank)
+                    .addValue("cursorType", after.type)
+                    .addValue("cursorId", after.id);
+        }
+
+        List<SearchResultResponse> results = jdbcTemplate.query(String.format(SEARCH_SQL, keyset), params,
+                (rs, rowNum) -> new SearchResultResponse(
+                        rs.getString("type"),
+                        rs.getLong("id"),
+                        rs.getLong("movie_id"),
+                        rs.getString("title"),
+                        toHtmlSnippet(rs.getString("snippet")),
+                        rs.getDouble("rank")));
+
+        String nextCursor = null;
+        if (results.size() == pageSize) {
+            SearchResultResponse last = results.get(results.size() - 1);
+            nextCursor = encodeCursor(last);
+        }
+        return new SearchPageResponse(results, nextCursor);
+    }
+
+    // Review and comment text is user input, so it is escaped before the highlight tags are added
+    private String toHtmlSnippet(String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet, StandardCharsets.UTF_8.name())
+                .replace(MATCH_START, "<mark>")
+                .replace(MATCH_END, "</mark>");
+    }
+
+    private String encodeCursor(SearchResultResponse last) {
+        String raw = last.getRank() + "|" + last.getType() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Any cursor that did not come from encodeCursor is a client error, never a failed query
+    private SearchCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            double rank = Double.parseDouble(parts[0]);
+            if (!Double.isFinite(rank) || !("MOVIE".equals(parts[1]) || "COMMENT".equals(parts[1]))) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new SearchCursor(rank, parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid search cursor");
+        }
+    }
+
+    // Position of the last result on the previous page, in the (rank, type, id) sort order
+    private static final class SearchCursor {
+        private final double rank;
+        private final String type;
+        private final long id;
+
+        private SearchCursor(double rank, String type, long id) {
+            this.rank = rank;
+            this.type = type;
+            this.id = id;
+        }
+    }
+}
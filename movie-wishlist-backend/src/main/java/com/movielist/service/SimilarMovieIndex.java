@@ -0,0 +1,625 @@
+package com.movielist.service;
+
+import com.movielist.entity.Movie;
+import com.movielist.exception.ResourceNotFoundException;
+import com.movielist.payload.SimilarMovieResponse;
+import com.movielist.util.HnswIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * "More like this" over every distinct movie in users' libraries. Each movie becomes a feature
+ * vector (hashed genres, release decade, runtime bucket, how users rated it and hashed review
+ * words) stored in an HNSW graph, so a lookup visits a few hundred vectors instead of all of
+ * them. Newly added movies are inserted incrementally; movies whose last copy is deleted are
+ * tombstoned and left out of results, since HNSW nodes can't be removed. When a copy is enriched,
+ * edited or rated, the movie is inserted again with its fresh features and the old node is
+ * hidden the same way. A periodic rebuild drops hidden nodes from the graph. The graph is saved
+ * to a memory-mapped file and loaded from it on startup.
+ */
+@Service
+public class SimilarMovieIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarMovieIndex.class);
+
+    private static final int FILE_MAGIC = 0x534D4931;
+
+    // Feature layout: each block is normalized on its own and then weighted
+    private static final int GENRE_BUCKETS = 32;
+    private static final int FIRST_DECADE = 1900;
+    private static final int DECADES = 14;
+    private static final int[] RUNTIME_BOUNDS = {90, 105, 120, 150};
+    private static final int RATING_FEATURES = 2;
+    private static final int REVIEW_BUCKETS = 32;
+
+    private static final int GENRE_OFFSET = 0;
+    private static final int DECADE_OFFSET = GENRE_OFFSET + GENRE_BUCKETS;
+    private static final int RUNTIME_OFFSET = DECADE_OFFSET + DECADES;
+    private static final int RATING_OFFSET = RUNTIME_OFFSET + RUNTIME_BOUNDS.length + 1;
+    private static final int REVIEW_OFFSET = RATING_OFFSET + RATING_FEATURES;
+    private static final int DIMENSIONS = REVIEW_OFFSET + REVIEW_BUCKETS;
+
+    private static final float GENRE_WEIGHT = 1.0f;
+    private static final float DECADE_WEIGHT = 0.6f;
+    private static final float RUNTIME_WEIGHT = 0.3f;
+    private static final float RATING_WEIGHT = 0.4f;
+    private static final float REVIEW_WEIGHT = 0.5f;
+
+    // Bounds the review text hashed per movie
+    private static final int MAX_REVIEWS_PER_MOVIE = 20;
+
+    private static final int MAX_RESULTS = 50;
+    private static final long GRAPH_SEED = 42;
+
+    @Value("${recommendations.similar.index-file}")
+    private String indexFile;
+
+    @Value("${recommendations.similar.max-links}")
+    private int maxLinks;
+
+    @Value("${recommendations.similar.ef-construction}")
+    private int efConstruction;
+
+    @Value("${recommendations.similar.ef-search}")
+    private int efSearch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("backgroundJobExecutor")
+    private TaskExecutor backgroundJobExecutor;
+
+    private volatile Snapshot snapshot;
+
+    private final AtomicBoolean building = new AtomicBoolean(false);
+
+    // Serializes inserts with rebuilds and saves
+    private final Object updateLock = new Object();
+
+    private final Queue<Movie> pendingMovies = new ConcurrentLinkedQueue<>();
+
+    // Copies whose features changed since their movie was indexed
+    private final Queue<ChangedCopy> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    // Keys of movies with no copies left in any library; hidden from results until a rebuild drops them
+    private final Set<String> tombstones = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean dirty;
+
+    @PostConstruct
+    public void load() {
+        Path path = Paths.get(indexFile);
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        try {
+            snapshot = read(path);
+            logger.info("Loaded similar-movie index from {}: {} movies", path, snapshot.keys.size());
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable similar-movie index {}: {}", path, e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfMissing() {
+        if (snapshot == null && building.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::rebuild);
+        }
+    }
+
+    @Scheduled(cron = "${recommendations.similar.rebuild-cron}")
+    public void scheduledRebuild() {
+        if (building.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::rebuild);
+        }
+    }
+
+    // Called from MovieService.addMovie; the insert itself happens on the next drain
+    public void movieAdded(Movie movie) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            tombstones.remove(MovieKeys.key(movie.getTmdbId(), movie.getTitle(), current.aliases));
+        }
+        pendingMovies.add(movie);
+    }
+
+    // Called from MovieService.deleteMovie once the copy is gone
+    public void movieDeleted(Movie movie) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        String key = MovieKeys.key(movie.getTmdbId(), movie.getTitle(), current.aliases);
+        try {
+            // Other users' copies keep the movie in the index
+            if (loadFeatures(key, movie.getTitle(), current.aliases) == null) {
+                tombstones.add(key);
+            }
+        } catch (Exception e) {
+            // The delete has already succeeded; the movie drops out at the next rebuild instead
+            logger.warn("Failed to tombstone deleted movie {} in the similar-movie index: {}", key, e.getMessage());
+        }
+    }
+
+    // Called after a copy is enriched, edited or rated; the movie is re-inserted on the next drain
+    public void movieChanged(Long tmdbId, String title) {
+        pendingChanges.add(new ChangedCopy(tmdbId, title));
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.similar.insert-interval-ms}")
+    public void insertPendingMovies() {
+        // While a rebuild runs, inserts wait for its snapshot, which may already contain them
+        Snapshot current = snapshot;
+        if (current == null || building.get() || (pendingMovies.isEmpty() && pendingChanges.isEmpty())) {
+            return;
+        }
+        synchronized (updateLock) {
+            current = snapshot;
+            Movie movie;
+            while ((movie = pendingMovies.poll()) != null) {
+                String key = MovieKeys.key(movie.getTmdbId(), movie.getTitle(), current.aliases);
+                if (current.keys.containsKey(key)) {
+                    continue;
+                }
+                Features features = new Features(movie.getTmdbId(), movie.getTitle(), movie.getGenre(),
+                        movie.getReleaseYear(), movie.getRuntime(), movie.getPosterUrl());
+                features.addRating(movie.getRating());
+                features.addReview(movie.getReview());
+                current.add(key, features, vectorOf(features));
+                dirty = true;
+            }
+            reindexChangedMovies(current);
+        }
+    }
+
+    private void reindexChangedMovies(Snapshot current) {
+        Map<String, String> changed = new LinkedHashMap<>();
+        ChangedCopy change;
+        while ((change = pendingChanges.poll()) != null) {
+            changed.putIfAbsent(MovieKeys.key(change.tmdbId, change.title, current.aliases), change.title);
+        }
+        for (Map.Entry<String, String> entry : changed.entrySet()) {
+            String key = entry.getKey();
+            Features features;
+            try {
+                features = loadFeatures(key, entry.getValue(), current.aliases);
+            } catch (Exception e) {
+                // The rebuild picks the change up instead
+                logger.warn("Failed to reindex changed movie {} in the similar-movie index: {}", key, e.getMessage());
+                continue;
+            }
+            Integer node = current.keys.get(key);
+            if (features == null) {
+                // Every copy moved to another key, for example by being linked to TMDB
+                if (node != null) {
+                    tombstones.add(key);
+                }
+                continue;
+            }
+            float[] vector = vectorOf(features);
+            if (node != null && Arrays.equals(current.graph.vector(node), vector)) {
+                current.features.set(node, features);
+            } else {
+                current.replace(key, features, vector);
+            }
+            tombstones.remove(key);
+            dirty = true;
+        }
+    }
+
+    // Features aggregated over every copy with the given key, or null when no copy is left
+    private Features loadFeatures(String key, String title, Map<String, Long> aliases) {
+        return jdbcTemplate.query(
+                "SELECT tmdb_id, title, genre, release_year, runtime, poster_url, rating, review " +
+                        "FROM movies WHERE tmdb_id = ? OR lower(title) = lower(?)",
+                rs -> {
+                    Features features = null;
+                    while (rs.next()) {
+                        Long tmdbId = rs.getObject(1, Long.class);
+                        String copyTitle = rs.getString(2);
+                        if (!key.equals(MovieKeys.key(tmdbId, copyTitle, aliases))) {
+                            continue;
+                        }
+                        if (features == null) {
+                            features = new Features(tmdbId, copyTitle, null, null, null, null);
+                        }
+                        features.fillGaps(rs.getString(3), rs.getObject(4, Integer.class),
+                                rs.getObject(5, Integer.class), rs.getString(6));
+                        features.addRating(rs.getObject(7, Integer.class));
+                        features.addReview(rs.getString(8));
+                    }
+                    return features;
+                }, MovieKeys.tmdbId(key), title);
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.similar.save-interval-ms}")
+    public void saveIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        synchronized (updateLock) {
+            dirty = false;
+            try {
+                write(snapshot, Paths.get(indexFile));
+            } catch (IOException e) {
+                dirty = true;
+                logger.warn("Failed to save similar-movie index: {}", e.getMessage());
+            }
+        }
+    }
+
+    public List<SimilarMovieResponse> findSimilar(Long movieId, int limit) {
+        Snapshot current = snapshot;
+        Features movie = jdbcTemplate.query(
+                "SELECT tmdb_id, title, genre, release_year, runtime, poster_url, rating, review FROM movies WHERE id = ?",
+                rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    Features features = new Features(rs.getObject(1, Long.class), rs.getString(2), rs.getString(3),
+                            rs.getObject(4, Integer.class), rs.getObject(5, Integer.class), rs.getString(6));
+                    features.addRating(rs.getObject(7, Integer.class));
+                    features.addReview(rs.getString(8));
+                    return features;
+                }, movieId);
+        if (movie == null) {
+            throw new ResourceNotFoundException("Movie", "id", movieId);
+        }
+        if (current == null) {
+            return Collections.emptyList();
+        }
+
+        // Prefer the indexed vector, which reflects every user's ratings and reviews of the movie
+        String key = MovieKeys.key(movie.tmdbId, movie.title, current.aliases);
+        Integer self = current.keys.get(key);
+        float[] query = self != null ? current.graph.vector(self) : vectorOf(movie);
+
+        int size = Math.max(1, Math.min(limit, MAX_RESULTS));
+        // Extra candidates stand in for the movie itself and for deleted or replaced nodes the graph still holds
+        int candidates = size + 1 + Math.min(tombstones.size() + current.replaced.size(), MAX_RESULTS);
+        int[] nodes = new int[candidates];
+        float[] similarities = new float[candidates];
+        int found = current.graph.search(query, candidates, efSearch, nodes, similarities);
+
+        List<SimilarMovieResponse> results = new ArrayList<>(size);
+        for (int index = 0; index < found && results.size() < size; index++) {
+            if ((self != null && nodes[index] == self) || current.replaced.contains(nodes[index])) {
+                continue;
+            }
+            Features match = current.features.get(nodes[index]);
+            if (!tombstones.isEmpty() && tombstones.contains(MovieKeys.key(match.tmdbId, match.title, current.aliases))) {
+                continue;
+            }
+            results.add(new SimilarMovieResponse(match.tmdbId, match.title, match.genre, match.releaseYear,
+                    match.posterUrl, similarities[index]));
+        }
+        return results;
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        try {
+            Map<String, Long> aliases = MovieKeys.loadAliases(jdbcTemplate);
+            Map<String, Features> movies = new LinkedHashMap<>();
+            jdbcTemplate.query("SELECT tmdb_id, title, genre, release_year, runtime, poster_url, rating, review FROM movies",
+                    rs -> {
+                        Long tmdbId = rs.getObject(1, Long.class);
+                        String title = rs.getString(2);
+                        String key = MovieKeys.key(tmdbId, title, aliases);
+                        Features features = movies.get(key);
+                        if (features == null) {
+                            features = new Features(tmdbId, title, null, null, null, null);
+                            movies.put(key, features);
+                        }
+                        features.fillGaps(rs.getString(3), rs.getObject(4, Integer.class),
+                                rs.getObject(5, Integer.class), rs.getString(6));
+                        features.addRating(rs.getObject(7, Integer.class));
+                        features.addReview(rs.getString(8));
+                    });
+
+            Snapshot built = new Snapshot(new HnswIndex(DIMENSIONS, maxLinks, efConstruction, GRAPH_SEED), aliases);
+            for (Map.Entry<String, Features> entry : movies.entrySet()) {
+                built.add(entry.getKey(), entry.getValue(), vectorOf(entry.getValue()));
+            }
+
+            synchronized (updateLock) {
+                write(built, Paths.get(indexFile));
+                snapshot = built;
+                dirty = false;
+                // Deletes that landed after the scan read the movie still need hiding
+                tombstones.retainAll(built.keys.keySet());
+            }
+            logger.info("Similar-movie index built in {} ms: {} movies",
+                    (System.nanoTime() - start) / 1_000_000, built.keys.size());
+        } catch (Exception e) {
+            logger.error("Similar-movie index build failed: {}", e.getMessage());
+        } finally {
+            building.set(false);
+        }
+    }
+
+    private float[] vectorOf(Features movie) {
+        float[] vector = new float[DIMENSIONS];
+
+        if (movie.genre != null) {
+            for (String genre : movie.genre.split("[,/|]")) {
+                String normalized = genre.trim().toLowerCase(Locale.ROOT);
+                if (!normalized.isEmpty()) {
+                    vector[GENRE_OFFSET + Math.floorMod(normalized.hashCode(), GENRE_BUCKETS)] = 1f;
+                }
+            }
+        }
+        if (movie.releaseYear != null) {
+            // Neighbouring decades get partial credit so 1989 and 1991 are not unrelated
+            int decade = Math.max(0, Math.min(DECADES - 1, (movie.releaseYear - FIRST_DECADE) / 10));
+            vector[DECADE_OFFSET + decade] = 1f;
+            if (decade > 0) {
+                vector[DECADE_OFFSET + decade - 1] = 0.4f;
+            }
+            if (decade < DECADES - 1) {
+                vector[DECADE_OFFSET + decade + 1] = 0.4f;
+            }
+        }
+        if (movie.runtime != null) {
+            int bucket = 0;
+            while (bucket < RUNTIME_BOUNDS.length && movie.runtime >= RUNTIME_BOUNDS[bucket]) {
+                bucket++;
+            }
+            vector[RUNTIME_OFFSET + bucket] = 1f;
+        }
+        if (movie.ratingCount > 0) {
+            // Ratings run from 1 to 10: centred mean, and the share of ratings of 8 or more
+            vector[RATING_OFFSET] = (float) ((movie.ratingSum / movie.ratingCount - 5.5) / 4.5);
+            vector[RATING_OFFSET + 1] = (float) movie.highRatings / movie.ratingCount;
+        }
+        for (Map.Entry<String, Integer> word : movie.reviewWords.entrySet()) {
+            // Signed hashing keeps colliding words from only ever adding up
+            int hash = word.getKey().hashCode();
+            float sign = (hash & 0x80000000) == 0 ? 1f : -1f;
+            vector[REVIEW_OFFSET + Math.floorMod(hash * 31 + 7, REVIEW_BUCKETS)] += sign * word.getValue();
+        }
+
+        normalizeBlock(vector, GENRE_OFFSET, GENRE_BUCKETS, GENRE_WEIGHT);
+        normalizeBlock(vector, DECADE_OFFSET, DECADES, DECADE_WEIGHT);
+        normalizeBlock(vector, RUNTIME_OFFSET, RUNTIME_BOUNDS.length + 1, RUNTIME_WEIGHT);
+        normalizeBlock(vector, RATING_OFFSET, RATING_FEATURES, RATING_WEIGHT);
+        normalizeBlock(vector, REVIEW_OFFSET, REVIEW_BUCKETS, REVIEW_WEIGHT);
+        normalizeBlock(vector, 0, DIMENSIONS, 1f);
+        return vector;
+    }
+
+    private void normalizeBlock(float[] vector, int offset, int length, float weight) {
+        double sum = 0;
+        for (int index = offset; index < offset + length; index++) {
+            sum += vector[index] * vector[index];
+        }
+        if (sum == 0) {
+            return;
+        }
+        float scale = (float) (weight / Math.sqrt(sum));
+        for (int index = offset; index < offset + length; index++) {
+            vector[index] *= scale;
+        }
+    }
+
+    // Layout: magic, metadata length, metadata (keys, aliases, display fields), then the HNSW graph
+    private void write(Snapshot current, Path path) throws IOException {
+        byte[] metadata = current.metadata();
+        int graphSize = current.graph.serializedSize();
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "similar", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 8L + metadata.length + graphSize);
+            buffer.putInt(FILE_MAGIC).putInt(metadata.length).put(metadata);
+            current.graph.writeTo(buffer);
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != FILE_MAGIC) {
+                throw new IOException("Not a similar-movie index file");
+            }
+            byte[] metadata = new byte[buffer.getInt()];
+            buffer.get(metadata);
+            HnswIndex graph = HnswIndex.readFrom(buffer, GRAPH_SEED);
+            if (graph.dimensions() != DIMENSIONS) {
+                throw new IOException("Index was built with a different feature layout");
+            }
+            return Snapshot.fromMetadata(graph, metadata);
+        }
+    }
+
+    private static class Snapshot {
+        private final HnswIndex graph;
+        private final Map<String, Long> aliases;
+        private final Map<String, Integer> keys = new ConcurrentHashMap<>();
+        private final List<Features> features = Collections.synchronizedList(new ArrayList<>());
+
+        // Nodes superseded by a newer node for the same movie
+        private final Set<Integer> replaced = ConcurrentHashMap.newKeySet();
+
+        private Snapshot(HnswIndex graph, Map<String, Long> aliases) {
+            this.graph = graph;
+            this.aliases = aliases;
+        }
+
+        // Metadata is registered before the node becomes reachable through the graph
+        private void add(String key, Features movie, float[] vector) {
+            features.add(movie);
+            keys.put(key, graph.add(vector));
+        }
+
+        // Inserts the movie again and hides the node it had, since HNSW nodes can't be updated
+        private void replace(String key, Features movie, float[] vector) {
+            Integer previous = keys.get(key);
+            add(key, movie, vector);
+            if (previous != null) {
+                replaced.add(previous);
+            }
+        }
+
+        private byte[] metadata() {
+            StringBuilder text = new StringBuilder();
+            text.append(aliases.size()).append('\n');
+            aliases.forEach((title, tmdbId) -> text.append(escape(title)).append('\t').append(tmdbId).append('\n'));
+            // Replaced nodes have no key and are written with a null one
+            String[] ordered = new String[features.size()];
+            keys.forEach((key, node) -> ordered[node] = key);
+            text.append(ordered.length).append('\n');
+            for (int node = 0; node < ordered.length; node++) {
+                Features movie = features.get(node);
+                text.append(escape(ordered[node])).append('\t')
+                        .append(movie.tmdbId != null ? movie.tmdbId : "").append('\t')
+                        .append(escape(movie.title)).append('\t')
+                        .append(escape(movie.genre)).append('\t')
+                        .append(movie.releaseYear != null ? movie.releaseYear : "").append('\t')
+                        .append(escape(movie.posterUrl)).append('\n');
+            }
+            return text.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static Snapshot fromMetadata(HnswIndex graph, byte[] metadata) {
+            String[] lines = new String(metadata, StandardCharsets.UTF_8).split("\n", -1);
+            int line = 0;
+            Map<String, Long> aliases = new HashMap<>();
+            int aliasCount = Integer.parseInt(lines[line++]);
+            for (int alias = 0; alias < aliasCount; alias++) {
+                String[] fields = lines[line++].split("\t", -1);
+                aliases.put(unescape(fields[0]), Long.valueOf(fields[1]));
+            }
+            Snapshot loaded = new Snapshot(graph, aliases);
+            int count = Integer.parseInt(lines[line++]);
+            for (int node = 0; node < count; node++) {
+                String[] fields = lines[line++].split("\t", -1);
+                String key = unescape(fields[0]);
+                if (key != null) {
+                    loaded.keys.put(key, node);
+                } else {
+                    loaded.replaced.add(node);
+                }
+                loaded.features.add(new Features(fields[1].isEmpty() ? null : Long.valueOf(fields[1]),
+                        unescape(fields[2]), unescape(fields[3]),
+                        fields[4].isEmpty() ? null : Integer.valueOf(fields[4]), null, unescape(fields[5])));
+            }
+            return loaded;
+        }
+
+        // Null becomes "\0"; tabs, newlines and backslashes are escaped
+        private static String escape(String value) {
+            if (value == null) {
+                return "\\0";
+            }
+            return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+        }
+
+        private static String unescape(String value) {
+            if (value.equals("\\0")) {
+                return null;
+            }
+            StringBuilder result = new StringBuilder(value.length());
+            for (int index = 0; index < value.length(); index++) {
+                char c = value.charAt(index);
+                if (c == '\\' && index + 1 < value.length()) {
+                    char next = value.charAt(++index);
+                    result.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+                } else {
+                    result.append(c);
+                }
+            }
+            return result.toString();
+        }
+    }
+
+    private static class ChangedCopy {
+        private final Long tmdbId;
+        private final String title;
+
+        private ChangedCopy(Long tmdbId, String title) {
+            this.tmdbId = tmdbId;
+            this.title = title;
+        }
+    }
+
+    // Aggregated over every user's copy of one movie
+    private static class Features {
+        private final Long tmdbId;
+        private final String title;
+        private String genre;
+        private Integer releaseYear;
+        private Integer runtime;
+        private String posterUrl;
+        private double ratingSum;
+        private int ratingCount;
+        private int highRatings;
+        private int reviews;
+        private final Map<String, Integer> reviewWords = new HashMap<>();
+
+        private Features(Long tmdbId, String title, String genre, Integer releaseYear, Integer runtime, String posterUrl) {
+            this.tmdbId = tmdbId;
+            this.title = title;
+            this.genre = genre;
+            this.releaseYear = releaseYear;
+            this.runtime = runtime;
+            this.posterUrl = posterUrl;
+        }
+
+        private void fillGaps(String genre, Integer releaseYear, Integer runtime, String posterUrl) {
+            this.genre = this.genre != null ? this.genre : genre;
+            this.releaseYear = this.releaseYear != null ? this.releaseYear : releaseYear;
+            this.runtime = this.runtime != null ? this.runtime : runtime;
+            this.posterUrl = this.posterUrl != null ? this.posterUrl : posterUrl;
+        }
+
+        private void addRating(Integer rating) {
+            if (rating != null) {
+                ratingSum += rating;
+                ratingCount++;
+                if (rating >= 8) {
+                    highRatings++;
+                }
+            }
+        }
+
+        private void addReview(String review) {
+            if (review == null || review.isBlank() || reviews >= MAX_REVIEWS_PER_MOVIE) {
+                return;
+            }
+            reviews++;
+            for (String word : review.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (word.length() >= 3) {
+                    reviewWords.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.movielist.service;
+
+import com.movielist.entity.Movie;
+import com.movielist.entity.User;
+import com.movielist.payload.SimilarUserResponse;
+import com.movielist.repository.UserRepository;
+import com.movielist.util.MinHashLsh;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "Users like you": finds the users whose watched movies overlap most with the caller's, by
+ * Jaccard similarity of the two sets. Every user's watched set is summarized as a 64-value MinHash
+ * signature split into 16 bands of 4, and users sharing a band land in the same LSH bucket, so a
+ * lookup scores only the users it collides with. Marking a movie as watched updates the caller's
+ * signature in place; a periodic rebuild picks up deletions and merges of movie keys.
+ */
+@Service
+public class SimilarUserIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarUserIndex.class);
+
+    private static final int BANDS = 16;
+    private static final int ROWS_PER_BAND = 4;
+    private static final long HASH_SEED = 42;
+
+    // Bounds the work for signatures shared by many users, such as one popular watched movie
+    private static final int MAX_BUCKET_SCAN = 2000;
+    private static final int MAX_RESULTS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    @Qualifier("backgroundJobExecutor")
+    private TaskExecutor backgroundJobExecutor;
+
+    private volatile Snapshot snapshot;
+
+    private final AtomicBoolean building = new AtomicBoolean(false);
+
+    // Held while watched movies are applied to the snapshot and while a rebuild swaps it in
+    private final Object updateLock = new Object();
+
+    // Watched movies not yet in the snapshot; kept while a rebuild runs and replayed onto its result
+    private final Queue<WatchedMovie> pending = new ConcurrentLinkedQueue<>();
+
+    @Scheduled(initialDelayString = "${recommendations.similar-users.initial-delay-ms}",
+            fixedDelayString = "${recommendations.similar-users.rebuild-interval-ms}")
+    public void scheduledRebuild() {
+        if (building.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::rebuild);
+        }
+    }
+
+    // Called from MovieService.markAsWatched
+    public void movieWatched(Long userId, Movie movie) {
+        pending.add(new WatchedMovie(userId, movie.getTmdbId(), movie.getTitle()));
+        if (!building.get()) {
+            applyPending();
+        }
+    }
+
+    public List<SimilarUserResponse> findSimilar(Long userId, int limit) {
+        Snapshot current = snapshot;
+        int size = Math.max(0, Math.min(limit, MAX_RESULTS));
+        if (current == null || size == 0) {
+            return Collections.emptyList();
+        }
+        long[] ids = new long[size];
+        float[] similarities = new float[size];
+        int count = current.lsh.query(userId, size, MAX_BUCKET_SCAN, ids, similarities);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+
+        List<Long> userIds = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            userIds.add(ids[index]);
+        }
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<SimilarUserResponse> results = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            User user = users.get(ids[index]);
+            if (user != null) {
+                results.add(new SimilarUserResponse(user.getId(), user.getUsername(),
+                        user.getProfilePictureUrl(), (double) similarities[index]));
+            }
+        }
+        return results;
+    }
+
+    private void rebuild() {
+        try {
+            long start = System.nanoTime();
+            Snapshot built = new Snapshot(MovieKeys.loadAliases(jdbcTemplate),
+                    new MinHashLsh(BANDS, ROWS_PER_BAND, HASH_SEED));
+            // Rows arrive grouped by user, so each user's signature is bucketed once with its final values
+            UserMovies user = new UserMovies();
+            long[] rows = new long[1];
+            jdbcTemplate.query("SELECT user_id, tmdb_id, title FROM movies WHERE status = 'WATCHED' " +
+                    "ORDER BY user_id", rs -> {
+                long userId = rs.getLong(1);
+                if (userId != user.userId) {
+                    user.addTo(built);
+                    user.userId = userId;
+                }
+                user.add(built.elementHash(rs.getObject(2, Long.class), rs.getString(3)));
+                rows[0]++;
+            });
+            user.addTo(built);
+            synchronized (updateLock) {
+                snapshot = built;
+                drainPending(built);
+            }
+            logger.info("Similar-user index built in {} ms: {} users, {} watched movies",
+                    (System.nanoTime() - start) / 1_000_000, built.lsh.size(), rows[0]);
+        } catch (Exception e) {
+            logger.error("Similar-user index build failed: {}", e.getMessage());
+        } finally {
+            building.set(false);
+        }
+        // Catches movies queued after the swap but before the flag cleared
+        applyPending();
+    }
+
+    private void applyPending() {
+        synchronized (updateLock) {
+            Snapshot current = snapshot;
+            if (current != null) {
+                drainPending(current);
+            }
+        }
+    }
+
+    private void drainPending(Snapshot target) {
+        WatchedMovie watched;
+        while ((watched = pending.poll()) != null) {
+            target.add(watched.userId, watched.tmdbId, watched.title);
+        }
+    }
+
+    // 64-bit FNV-1a of the movie key, finished with a mixer so nearby keys spread across all bits
+    private static long elementHash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static class Snapshot {
+        private final Map<String, Long> aliases;
+        private final MinHashLsh lsh;
+
+        private Snapshot(Map<String, Long> aliases, MinHashLsh lsh) {
+            this.aliases = aliases;
+            this.lsh = lsh;
+        }
+
+        private void add(long userId, Long tmdbId, String title) {
+            lsh.add(userId, elementHash(tmdbId, title));
+        }
+
+        private long elementHash(Long tmdbId, String title) {
+            return SimilarUserIndex.elementHash(MovieKeys.key(tmdbId, title, aliases));
+        }
+    }
+
+    // Watched-movie hashes of the user currently being read by a rebuild
+    private static class UserMovies {
+        private long userId;
+        private long[] elements = new long[64];
+        private int count;
+
+        private void add(long element) {
+            if (count == elements.length) {
+                elements = Arrays.copyOf(elements, count * 2);
+            }
+            elements[count++] = element;
+        }
+
+        private void addTo(Snapshot target) {
+            if (count > 0) {
+                target.lsh.addAll(userId, Arrays.copyOf(elements, count));
+                count = 0;
+            }
+        }
+    }
+
+    private static class WatchedMovie {
+        private final long userId;
+        private final Long tmdbId;
+        private final String title;
+
+        private WatchedMovie(long userId, Long tmdbId, String title) {
+            this.userId = userId;
+            this.tmdbId = tmdbId;
+            this.title = title;
+        }
+    }
+}
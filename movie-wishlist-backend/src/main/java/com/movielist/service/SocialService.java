@@ -1,10 +1,15 @@
 package com.movielist.service;
 
+import com.movielist.entity.ActivityEvent;
 import com.movielist.entity.Comment;
 import com.movielist.entity.Like;
 import com.movielist.entity.Movie;
 import com.movielist.entity.User;
+import com.movielist.event.CommentAddedEvent;
+import com.movielist.event.MovieLikedEvent;
+import com.movielist.event.MovieLikesChangedEvent;
 import com.movielist.exception.ResourceNotFoundException;
+import com.movielist.payload.CommentPageResponse;
 import com.movielist.payload.CommentRequest;
 import com.movielist.payload.CommentResponse;
 import com.movielist.repository.CommentRepository;
@@ -12,17 +17,29 @@ import com.movielist.repository.LikeRepository;
 import com.movielist.repository.MovieRepository;
 import com.movielist.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.LocalDateTime;
 
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class SocialService {
 
+    private static final int MAX_COMMENTS_PAGE_SIZE = 200;
+    private static final int MAX_REPLIES_PREVIEW = 20;
+    private static final int MAX_THREAD_SIZE = 500;
+    private static final int MAX_THREAD_DEPTH = 32;
+
     @Autowired
     private LikeRepository likeRepository;
 
@@ -35,29 +52,38 @@ public class SocialService {
     @Autowired
     private UserRepository userRepository;
 
-    public void likeMovie(Long movieId, User user) {
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new ResourceNotFoundException("Movie", "id", movieId));
-        
-        if (likeRepository.existsByUserAndMovie(user, movie)) {
-            throw new RuntimeException("You have already liked this movie");
-        }
-        
-        Like like = new Like();
-        like.setUser(user);
-        like.setMovie(movie);
-        
-        likeRepository.save(like);
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LikeCounterBuffer likeCounterBuffer;
+
+    // Liking twice or unliking a movie that is not liked is a no-op, so clients can safely retry
+    public Long likeMovie(Long movieId, User user) {
+        return applyLikeChange(movieId, user, likeRepository.insertLike(user.getId(), movieId), 1);
     }
 
-    public void unlikeMovie(Long movieId, User user) {
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new ResourceNotFoundException("Movie", "id", movieId));
+    public Long unlikeMovie(Long movieId, User user) {
+        return applyLikeChange(movieId, user, likeRepository.deleteLike(user.getId(), movieId), -1);
+    }
+
+    private Long applyLikeChange(Long movieId, User user, List<Object[]> result, long delta) {
+        if (result.isEmpty()) {
+            throw new ResourceNotFoundException("Movie", "id", movieId);
+        }
         
-        Like like = likeRepository.findByUserAndMovie(user, movie)
-                .orElseThrow(() -> new RuntimeException("You have not liked this movie"));
+        Object[] row = result.get(0);
+        if (((Number) row[1]).longValue() > 0) {
+            likeCounterBuffer.record(movieId, delta);
+            eventPublisher.publishEvent(new MovieLikedEvent(user.getId(), movieId, delta > 0));
+        }
         
-        likeRepository.delete(like);
+        long likesCount = likeCounterBuffer.getLikesCount(movieId, ((Number) row[0]).longValue());
+        eventPublisher.publishEvent(new MovieLikesChangedEvent(movieId, likesCount));
+        return likesCount;
     }
 
     public CommentResponse addComment(Long movieId, CommentRequest commentRequest, User user) {
@@ -70,20 +96,103 @@ public class SocialService {
         comment.setUser(user);
         comment.setMovie(movie);
         
+        if (commentRequest.getParentId() != null) {
+            Comment parent = commentRepository.findById(commentRequest.getParentId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentRequest.getParentId()));
+            
+            if (!parent.getMovie().getId().equals(movieId)) {
+                throw new RuntimeException("You can only reply to comments on the same movie");
+            }
+            if (parent.getDepth() >= MAX_THREAD_DEPTH) {
+                throw new RuntimeException("This thread is too deep to reply to");
+            }
+            
+            comment.setParentId(parent.getId());
+            comment.setThreadId(parent.getThreadId() != null ? parent.getThreadId() : parent.getId());
+            comment.setDepth(parent.getDepth() + 1);
+            comment.setPath(parent.getPath() + parent.getId() + "/");
+        }
+        
         Comment savedComment = commentRepository.save(comment);
+        if (savedComment.getThreadId() != null) {
+            commentRepository.adjustReplyCount(savedComment.getThreadId(), 1);
+        }
+        feedService.publish(user, ActivityEvent.Type.COMMENTED, movie, savedComment.getContent());
+        
+        CommentResponse response = convertToCommentResponse(savedComment);
+        eventPublisher.publishEvent(new CommentAddedEvent(movie.getUser().getId(), response));
+        return response;
+    }
+
+    // Keyset pagination over (createdAt, id): the response carries the cursor for the next page
+    public CommentPageResponse getMovieComments(Long movieId, Instant before, Long beforeId, int size,
+                                                int repliesPreview) {
+        int pageSize = Math.max(1, Math.min(size, MAX_COMMENTS_PAGE_SIZE));
+        // One extra row tells whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        
+        List<CommentResponse> comments;
+        if (before != null && beforeId != null) {
+            LocalDateTime beforeCreatedAt = LocalDateTime.ofInstant(before, ZoneId.systemDefault());
+            comments = commentRepository.findPageByMovieIdBefore(movieId, beforeCreatedAt, beforeId, page);
+        } else {
+            comments = commentRepository.findPageByMovieId(movieId, page);
+            if (comments.isEmpty() && !movieRepository.existsById(movieId)) {
+                throw new ResourceNotFoundException("Movie", "id", movieId);
+            }
+        }
+        
+        boolean hasMore = comments.size() > pageSize;
+        if (hasMore) {
+            comments = new ArrayList<>(comments.subList(0, pageSize));
+        }
+        
+        if (repliesPreview > 0 && !comments.isEmpty()) {
+            attachReplyPreviews(comments, Math.min(repliesPreview, MAX_REPLIES_PREVIEW));
+        }
         
-        return convertToCommentResponse(savedComment);
+        CommentResponse last = hasMore ? comments.get(comments.size() - 1) : null;
+        return new CommentPageResponse(comments, last != null ? last.getCreatedAt() : null,
+                last != null ? last.getId() : null);
     }
 
-    public List<CommentResponse> getMovieComments(Long movieId) {
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new ResourceNotFoundException("Movie", "id", movieId));
+    // Returns every reply below the given comment, oldest first; clients nest them by parentId
+    public List<CommentResponse> getCommentThread(Long commentId) {
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
         
-        List<Comment> comments = commentRepository.findByMovieOrderByCreatedAtDesc(movie);
+        Long threadId = comment.getThreadId() != null ? comment.getThreadId() : comment.getId();
+        return commentRepository.findSubtree(threadId, subtreePrefix(comment), PageRequest.of(0, MAX_THREAD_SIZE));
+    }
+
+    private void attachReplyPreviews(List<CommentResponse> comments, int perThread) {
+        Map<Long, CommentResponse> threads = new LinkedHashMap<>();
+        for (CommentResponse comment : comments) {
+            comment.setReplies(new ArrayList<>());
+            if (comment.getReplyCount() != null && comment.getReplyCount() > 0) {
+                threads.put(comment.getId(), comment);
+            }
+        }
+        if (threads.isEmpty()) {
+            return;
+        }
         
-        return comments.stream()
-                .map(this::convertToCommentResponse)
-                .collect(Collectors.toList());
+        for (Object[] row : commentRepository.findReplyPreviews(threads.keySet(), perThread)) {
+            CommentResponse root = threads.get(((Number) row[9]).longValue());
+            CommentResponse reply = new CommentResponse(
+                    ((Number) row[0]).longValue(),
+                    (String) row[1],
+                    ((Timestamp) row[2]).toLocalDateTime(),
+                    ((Number) row[3]).longValue(),
+                    (String) row[4],
+                    (String) row[5],
+                    root.getMovieId(),
+                    root.getMovieTitle(),
+                    row[6] != null ? ((Number) row[6]).longValue() : null,
+                    ((Number) row[7]).intValue(),
+                    ((Number) row[8]).intValue());
+            root.getReplies().add(reply);
+        }
     }
 
     public void deleteComment(Long commentId, User user) {
@@ -95,7 +204,18 @@ public class SocialService {
             throw new RuntimeException("You don't have permission to delete this comment");
         }
         
+        // Replies are removed with their ancestor; the thread's reply count drops by everything deleted
+        Long threadId = comment.getThreadId() != null ? comment.getThreadId() : comment.getId();
+        int deletedReplies = commentRepository.deleteSubtree(threadId, subtreePrefix(comment));
         commentRepository.delete(comment);
+        
+        if (comment.getThreadId() != null) {
+            commentRepository.adjustReplyCount(comment.getThreadId(), -(deletedReplies + 1));
+        }
+    }
+
+    private String subtreePrefix(Comment comment) {
+        return comment.getPath() + comment.getId() + "/%";
     }
 
     public List<Long> getUserLikedMovies(Long userId) {
@@ -121,6 +241,9 @@ public class SocialService {
         response.setUserProfilePictureUrl(comment.getUser().getProfilePictureUrl());
         response.setMovieId(comment.getMovie().getId());
         response.setMovieTitle(comment.getMovie().getTitle());
+        response.setParentId(comment.getParentId());
+        response.setDepth(comment.getDepth());
+        response.setReplyCount(comment.getReplyCount());
         
         return response;
     }
@@ -0,0 +1,187 @@
+package com.movielist.service;
+
+import com.movielist.payload.TmdbMovieSummary;
+import com.movielist.payload.TmdbPageResponse;
+import com.movielist.util.TitlePrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+@Service
+public class TitleSuggestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleSuggestService.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int LIBRARY_WEIGHT = 10;
+    private static final int MAX_TMDB_TITLES = 200_000;
+    private static final int MAX_PENDING_TITLES = 50_000;
+    private static final int MAX_SUGGESTIONS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("backgroundJobExecutor")
+    private TaskExecutor backgroundJobExecutor;
+
+    private volatile TitlePrefixIndex index = TitlePrefixIndex.empty();
+
+    // Titles added since the last rebuild, merged into results until the next snapshot absorbs them
+    private final ConcurrentSkipListMap<String, PendingTitle> pending = new ConcurrentSkipListMap<>();
+
+    // TMDB titles seen in search and list responses, keyed by normalized title, with popularity
+    private final Map<String, PendingTitle> tmdbTitles = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public List<String> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        if (prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Over-fetch from the snapshot so pending weight changes can still reorder the top results
+        Map<String, TitlePrefixIndex.Entry> merged = new HashMap<>();
+        for (TitlePrefixIndex.Entry entry : index.topK(prefix, size * 2)) {
+            merged.put(entry.getKey(), entry);
+        }
+        for (Map.Entry<String, PendingTitle> entry : pending.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+            TitlePrefixIndex.Entry existing = merged.get(entry.getKey());
+            int weight = entry.getValue().weight + (existing != null ? existing.getWeight() : 0);
+            merged.put(entry.getKey(), new TitlePrefixIndex.Entry(entry.getKey(), entry.getValue().title, weight));
+        }
+
+        List<TitlePrefixIndex.Entry> results = new ArrayList<>(merged.values());
+        results.sort(Comparator.comparingInt(TitlePrefixIndex.Entry::getWeight).reversed()
+                .thenComparing(TitlePrefixIndex.Entry::getKey));
+        List<String> titles = new ArrayList<>(size);
+        for (int i = 0; i < Math.min(size, results.size()); i++) {
+            titles.add(results.get(i).getTitle());
+        }
+        return titles;
+    }
+
+    public void recordLibraryTitle(String title) {
+        addPending(title, LIBRARY_WEIGHT);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void recordTmdbResults(TmdbPageResponse response) {
+        if (response == null || response.getResults() == null) {
+            return;
+        }
+        for (TmdbMovieSummary movie : response.getResults()) {
+            recordTmdbTitle(movie.getTitle(), movie.getPopularity() != null ? movie.getPopularity() : 0.0);
+        }
+    }
+
+    public void recordTmdbTitle(String title, double popularity) {
+        String key = normalize(title);
+        if (key.isEmpty() || (tmdbTitles.size() >= MAX_TMDB_TITLES && !tmdbTitles.containsKey(key))) {
+            return;
+        }
+        int weight = (int) Math.min(Integer.MAX_VALUE / 4, Math.max(1, Math.round(popularity)));
+        if (tmdbTitles.put(key, new PendingTitle(title, weight)) == null) {
+            addPending(title, weight);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${search.suggest.initial-delay-ms:5000}",
+            fixedDelayString = "${search.suggest.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        backgroundJobExecutor.execute(() -> {
+            try {
+                rebuildIndex();
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    private void rebuildIndex() {
+        try {
+            long started = System.currentTimeMillis();
+            // Snapshot pending keys first; titles added during the rebuild stay pending
+            Set<String> absorbed = new HashSet<>(pending.keySet());
+            Map<String, PendingTitle> titles = new HashMap<>();
+
+            jdbcTemplate.query("SELECT title, COUNT(*) FROM movies WHERE title IS NOT NULL GROUP BY title", rs -> {
+                String title = rs.getString(1);
+                int weight = (int) Math.min(Integer.MAX_VALUE / 4, rs.getLong(2) * LIBRARY_WEIGHT);
+                titles.merge(normalize(title), new PendingTitle(title, weight),
+                        (a, b) -> new PendingTitle(a.weight >= b.weight ? a.title : b.title, a.weight + b.weight));
+            });
+            for (Map.Entry<String, PendingTitle> entry : tmdbTitles.entrySet()) {
+                titles.merge(entry.getKey(), entry.getValue(),
+                        (a, b) -> new PendingTitle(a.title, a.weight + b.weight));
+            }
+            titles.remove("");
+
+            String[] keys = new String[titles.size()];
+            String[] displayTitles = new String[titles.size()];
+            int[] weights = new int[titles.size()];
+            int i = 0;
+            for (Map.Entry<String, PendingTitle> entry : titles.entrySet()) {
+                keys[i] = entry.getKey();
+                displayTitles[i] = entry.getValue().title;
+                weights[i] = entry.getValue().weight;
+                i++;
+            }
+
+            index = TitlePrefixIndex.build(keys, displayTitles, weights);
+            pending.keySet().removeAll(absorbed);
+            logger.info("Rebuilt title suggestion index with {} titles in {} ms",
+                    keys.length, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Error rebuilding title suggestion index: {}", e.getMessage());
+        }
+    }
+
+    private void addPending(String title, int weight) {
+        String key = normalize(title);
+        if (key.isEmpty()) {
+            return;
+        }
+        pending.merge(key, new PendingTitle(title, weight), (a, b) -> new PendingTitle(a.title, a.weight + b.weight));
+        if (pending.size() >= MAX_PENDING_TITLES) {
+            rebuild();
+        }
+    }
+
+    static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(title, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static class PendingTitle {
+        private final String title;
+        private final int weight;
+
+        private PendingTitle(String title, int weight) {
+            this.title = title;
+            this.weight = weight;
+        }
+    }
+}
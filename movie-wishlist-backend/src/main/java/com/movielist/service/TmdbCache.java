@@ -0,0 +1,245 @@
+package com.movielist.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movielist.exception.TmdbUnavailableException;
+import com.movielist.payload.TmdbCacheStatsResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache for TMDB responses: a bounded in-memory LRU backed by an optional on-disk
+ * store that survives restarts. Expired entries are still served (stale-while-revalidate)
+ * while a single background refresh per key fetches a new copy.
+ */
+@Service
+public class TmdbCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbCache.class);
+
+    @Value("${tmdb.cache.max-entries}")
+    private int maxEntries;
+
+    // Entries older than their TTL plus this are treated as misses rather than served stale
+    @Value("${tmdb.cache.max-stale}")
+    private Duration maxStale;
+
+    @Value("${tmdb.cache.disk-dir:}")
+    private String diskDir;
+
+    @Value("${tmdb.cache.disk-max-age}")
+    private Duration diskMaxAge;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Map<String, Entry> memory;
+
+    private Path diskPath;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        memory = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        if (!diskDir.isBlank()) {
+            try {
+                diskPath = Files.createDirectories(Paths.get(diskDir));
+            } catch (IOException e) {
+                logger.warn("TMDB disk cache disabled, cannot create {}: {}", diskDir, e.getMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> get(String key, Duration ttl, Class<T> type, Supplier<CompletableFuture<T>> loader) {
+        Entry entry = memory.get(key);
+        if (entry == null && diskPath != null) {
+            entry = readFromDisk(key, type);
+            if (entry != null) {
+                diskHits.increment();
+                memory.put(key, entry);
+            }
+        }
+
+        Instant now = Instant.now();
+        if (entry != null && now.isBefore(entry.fetchedAt.plus(ttl))) {
+            hits.increment();
+            return CompletableFuture.completedFuture((T) entry.body);
+        }
+        if (entry != null && now.isBefore(entry.fetchedAt.plus(ttl).plus(maxStale))) {
+            staleHits.increment();
+            refreshInBackground(key, loader);
+            return CompletableFuture.completedFuture((T) entry.body);
+        }
+
+        // Past max-stale we wait for TMDB, but still fall back to the old copy if it is unavailable
+        Entry expired = entry;
+        misses.increment();
+        return loader.get().handle((body, error) -> {
+            if (error == null) {
+                put(key, body);
+                return body;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (expired != null && cause instanceof TmdbUnavailableException) {
+                fallbacks.increment();
+                return (T) expired.body;
+            }
+            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+        });
+    }
+
+    public TmdbCacheStatsResponse getStats() {
+        long hitCount = hits.sum();
+        long staleCount = staleHits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + staleCount + missCount;
+        double hitRate = total == 0 ? 0.0 : (double) (hitCount + staleCount) / total;
+        return new TmdbCacheStatsResponse(memory.size(), hitCount, staleCount, diskHits.sum(), missCount,
+                refreshFailures.sum(), fallbacks.sum(), hitRate, diskPath != null, 0, 0);
+    }
+
+    // Drop disk entries that have not been rewritten for longer than any TTL we would still serve
+    @Scheduled(fixedDelayString = "${tmdb.cache.disk-cleanup-interval-ms}")
+    public void cleanUpDisk() {
+        if (diskPath == null) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(diskMaxAge);
+        try (Stream<Path> files = Files.list(diskPath)) {
+            files.filter(file -> {
+                try {
+                    return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+                } catch (IOException e) {
+                    return false;
+                }
+            }).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.debug("Could not delete cache file {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Failed to clean TMDB disk cache: {}", e.getMessage());
+        }
+    }
+
+    private <T> void refreshInBackground(String key, Supplier<CompletableFuture<T>> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            loader.get().whenComplete((body, error) -> {
+                if (error != null) {
+                    refreshFailures.increment();
+                    logger.warn("Background refresh failed for {}: {}", key, error.getMessage());
+                } else {
+                    put(key, body);
+                }
+                refreshing.remove(key);
+            });
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            refreshing.remove(key);
+        }
+    }
+
+    private void put(String key, Object body) {
+        if (body == null) {
+            return;
+        }
+        Entry entry = new Entry(body, Instant.now());
+        memory.put(key, entry);
+        if (diskPath != null) {
+            writeToDisk(key, entry);
+        }
+    }
+
+    private Entry readFromDisk(String key, Class<?> type) {
+        Path file = diskPath.resolve(fileName(key));
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            JsonNode stored = objectMapper.readTree(file.toFile());
+            if (!key.equals(stored.path("key").asText())) {
+                return null;
+            }
+            Object body = objectMapper.treeToValue(stored.get("body"), type);
+            Instant fetchedAt = Instant.ofEpochMilli(stored.path("fetchedAt").asLong());
+            return new Entry(body, fetchedAt);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Ignoring unreadable cache file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        Map<String, Object> stored = new LinkedHashMap<>();
+        stored.put("key", key);
+        stored.put("fetchedAt", entry.fetchedAt.toEpochMilli());
+        stored.put("body", entry.body);
+        Path file = diskPath.resolve(fileName(key));
+        try {
+            // Write to a temp file and rename so readers never see a partial entry
+            Path temp = Files.createTempFile(diskPath, "entry", ".tmp");
+            objectMapper.writeValue(temp.toFile(), stored);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to write TMDB cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private String fileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + ".json";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+        private final Object body;
+        private final Instant fetchedAt;
+
+        private Entry(Object body, Instant fetchedAt) {
+            this.body = body;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.movielist.service;
+
+import com.movielist.payload.TmdbMovieSummary;
+import com.movielist.payload.TmdbPageResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+
+/**
+ * Prefetches the Discover lists (popular, top rated, upcoming) and the details of their top
+ * titles into the TMDB cache, once at startup and then on a schedule. Cached entries that are
+ * already fresh cost nothing; expired ones are refreshed in the background by the cache itself.
+ * The readiness probe waits for the first pass, or for the deadline if TMDB is slow.
+ */
+@Service
+public class TmdbCacheWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbCacheWarmer.class);
+
+    // Detail lookups per round; keeps warm-up well inside the TMDB bulkhead and rate limit
+    private static final int DETAILS_CONCURRENCY = 8;
+
+    @Value("${tmdb.warmup.enabled}")
+    private boolean enabled;
+
+    @Value("${tmdb.warmup.pages}")
+    private int pages;
+
+    @Value("${tmdb.warmup.details}")
+    private int detailsCount;
+
+    @Value("${tmdb.warmup.ready-deadline}")
+    private Duration readyDeadline;
+
+    @Autowired
+    private TmdbService tmdbService;
+
+    @Autowired
+    @Qualifier("backgroundJobExecutor")
+    private TaskExecutor backgroundJobExecutor;
+
+    private final Instant createdAt = Instant.now();
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile boolean warmedUp;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        backgroundJobExecutor.execute(this::warm);
+    }
+
+    @Scheduled(initialDelayString = "${tmdb.warmup.interval-ms}", fixedDelayString = "${tmdb.warmup.interval-ms}")
+    public void scheduledWarm() {
+        if (enabled && running.compareAndSet(false, true)) {
+            backgroundJobExecutor.execute(this::warm);
+        }
+    }
+
+    // Ready once the first pass finished, successfully or not, or once the deadline has passed
+    public boolean isReady() {
+        return !enabled || warmedUp || Instant.now().isAfter(createdAt.plus(readyDeadline));
+    }
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    private void warm() {
+        long start = System.nanoTime();
+        try {
+            List<List<TmdbMovieSummary>> lists = List.of(
+                    fetchPages(tmdbService::getPopularMoviesAsync),
+                    fetchPages(tmdbService::getTopRatedMoviesAsync),
+                    fetchPages(tmdbService::getUpcomingMoviesAsync));
+
+            List<Long> topIds = topIds(lists);
+            int detailsWarmed = 0;
+            for (int from = 0; from < topIds.size(); from += DETAILS_CONCURRENCY) {
+                List<CompletableFuture<?>> round = new ArrayList<>();
+                for (Long id : topIds.subList(from, Math.min(from + DETAILS_CONCURRENCY, topIds.size()))) {
+                    round.add(tmdbService.getMovieDetailsAsync(id).exceptionally(e -> {
+                        logger.debug("Warm-up could not load details for TMDB ID {}: {}", id, e.getMessage());
+                        return null;
+                    }));
+                }
+                CompletableFuture.allOf(round.toArray(new CompletableFuture[0])).join();
+                detailsWarmed += round.size();
+            }
+
+            logger.info("TMDB cache warm-up finished in {} ms: {} listed movies, {} movie details",
+                    (System.nanoTime() - start) / 1_000_000, lists.stream().mapToInt(List::size).sum(), detailsWarmed);
+        } catch (Exception e) {
+            logger.warn("TMDB cache warm-up failed: {}", e.getMessage());
+        } finally {
+            warmedUp = true;
+            running.set(false);
+        }
+    }
+
+    // Returns the list's movies across the first pages, in TMDB's ranking order
+    private List<TmdbMovieSummary> fetchPages(IntFunction<CompletableFuture<TmdbPageResponse>> fetch) {
+        List<CompletableFuture<TmdbPageResponse>> futures = new ArrayList<>(pages);
+        for (int page = 1; page <= pages; page++) {
+            int current = page;
+            futures.add(fetch.apply(page).exceptionally(e -> {
+                logger.debug("Warm-up could not load list page {}: {}", current, e.getMessage());
+                return null;
+            }));
+        }
+        List<TmdbMovieSummary> movies = new ArrayList<>();
+        for (CompletableFuture<TmdbPageResponse> future : futures) {
+            TmdbPageResponse page = future.join();
+            if (page != null && page.getResults() != null) {
+                movies.addAll(page.getResults());
+            }
+        }
+        return movies;
+    }
+
+    // Interleaves the lists so each one contributes its highest-ranked titles first
+    private List<Long> topIds(List<List<TmdbMovieSummary>> lists) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (int rank = 0; ids.size() < detailsCount; rank++) {
+            boolean any = false;
+            for (List<TmdbMovieSummary> list : lists) {
+                if (rank < list.size()) {
+                    any = true;
+                    if (list.get(rank).getId() != null && ids.size() < detailsCount) {
+                        ids.add(list.get(rank).getId());
+                    }
+                }
+            }
+            if (!any) {
+                break;
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+}
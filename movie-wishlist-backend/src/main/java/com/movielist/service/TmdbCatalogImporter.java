@@ -0,0 +1,252 @@
+package com.movielist.service;
+
+import com.movielist.exception.ApiException;
+import com.movielist.payload.TmdbCatalogStatusResponse;
+import com.movielist.payload.TmdbMovieDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Loads TMDB export files into tmdb_catalog. Files are JSON lines, optionally gzipped: either
+ * TMDB's daily ID exports or dumps of full movie objects in the API's details format. Lines are
+ * streamed through the decompressor and parser and upserted in batches; rows whose content is
+ * unchanged since the previous import are skipped, and a full snapshot also removes movies that
+ * are no longer in the export.
+ */
+@Service
+public class TmdbCatalogImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbCatalogImporter.class);
+
+    private static final int DELETE_CHUNK = 1000;
+
+    // Refuse to prune or to mark the import complete when this share of lines failed to parse;
+    // the file is probably truncated
+    private static final double MAX_INVALID_RATIO = 0.01;
+
+    @Value("${tmdb.catalog.import-dir:}")
+    private String importDir;
+
+    @Value("${tmdb.catalog.import-file}")
+    private String defaultImportFile;
+
+    @Value("${tmdb.catalog.batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private TmdbCatalogService catalogService;
+
+    @Autowired
+    private TmdbResponseParser responseParser;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    @Qualifier("backgroundJobExecutor")
+    private TaskExecutor backgroundJobExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile TmdbCatalogStatusResponse lastImport;
+
+    @Scheduled(cron = "${tmdb.catalog.import-cron}")
+    public void scheduledImport() {
+        if (importDir.isBlank() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        backgroundJobExecutor.execute(() -> runImport(defaultImportFile, true));
+    }
+
+    // Starts an import in the background; progress is visible through getStatus()
+    public TmdbCatalogStatusResponse startImport(String fileName, boolean fullSnapshot) {
+        if (importDir.isBlank()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "No catalog import directory is configured");
+        }
+        String file = fileName == null || fileName.isBlank() ? defaultImportFile : fileName;
+        resolve(file);
+        if (!running.compareAndSet(false, true)) {
+            throw new ApiException(HttpStatus.CONFLICT, "A catalog import is already running");
+        }
+        backgroundJobExecutor.execute(() -> runImport(file, fullSnapshot));
+        return getStatus();
+    }
+
+    public TmdbCatalogStatusResponse getStatus() {
+        TmdbCatalogStatusResponse status = lastImport != null ? copy(lastImport) : new TmdbCatalogStatusResponse();
+        status.setRunning(running.get());
+        status.setCatalogSize(catalogService.getSize());
+        status.setLocalHits(catalogService.getLocalHits());
+        status.setLocalMisses(catalogService.getLocalMisses());
+        status.setLastCompletedImport(catalogService.getLastCompletedImport());
+        return status;
+    }
+
+    private void runImport(String fileName, boolean fullSnapshot) {
+        TmdbCatalogStatusResponse status = new TmdbCatalogStatusResponse();
+        status.setFile(fileName);
+        status.setFullSnapshot(fullSnapshot);
+        status.setStartedAt(Instant.now());
+        lastImport = status;
+        try {
+            long detailed = importFile(resolve(fileName), fullSnapshot, status);
+            // Only a clean full snapshot with details makes the catalog complete enough to answer searches
+            if (fullSnapshot && detailed > 0 && !mostlyInvalid(status)) {
+                catalogService.markImportCompleted(fileName, detailed);
+            }
+            logger.info("Imported TMDB catalog file {}: {} lines, {} written, {} unchanged, {} invalid, {} removed",
+                    fileName, status.getLinesRead(), status.getWritten(), status.getUnchanged(),
+                    status.getInvalid(), status.getRemoved());
+        } catch (Exception e) {
+            logger.error("TMDB catalog import of {} failed: {}", fileName, e.getMessage());
+            status.setError(e.getMessage());
+        } finally {
+            status.setFinishedAt(Instant.now());
+            catalogService.refreshSize();
+            running.set(false);
+        }
+    }
+
+    // Returns the number of lines that carried movie details rather than just an id
+    private long importFile(Path path, boolean fullSnapshot, TmdbCatalogStatusResponse status) throws IOException {
+        // TMDB ids are dense ints well below a few million, so a bitmap of the ids seen is small
+        BitSet seen = new BitSet();
+        List<TmdbMovieDetails> batch = new ArrayList<>(batchSize);
+        long detailed = 0;
+
+        try (InputStream input = open(path);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                status.setLinesRead(status.getLinesRead() + 1);
+                TmdbMovieDetails movie = parse(line);
+                if (movie == null || movie.getId() == null || movie.getId() <= 0 || movie.getId() > Integer.MAX_VALUE) {
+                    status.setInvalid(status.getInvalid() + 1);
+                    continue;
+                }
+                seen.set(movie.getId().intValue());
+                if (movie.getTitle() != null) {
+                    detailed++;
+                }
+                batch.add(movie);
+                if (batch.size() >= batchSize) {
+                    flush(batch, status);
+                }
+            }
+        }
+        flush(batch, status);
+
+        if (fullSnapshot) {
+            prune(seen, status);
+        }
+        return detailed;
+    }
+
+    private TmdbMovieDetails parse(String line) {
+        try {
+            return responseParser.parseDetails(line);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void flush(List<TmdbMovieDetails> batch, TmdbCatalogStatusResponse status) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int[] counts = catalogService.upsert(batch);
+        for (int count : counts) {
+            // Zero means the ON CONFLICT ... WHERE found identical content and skipped the row
+            if (count == 0) {
+                status.setUnchanged(status.getUnchanged() + 1);
+            } else {
+                status.setWritten(status.getWritten() + 1);
+            }
+        }
+        batch.clear();
+    }
+
+    // Deletes catalog rows that a full export no longer lists
+    private void prune(BitSet seen, TmdbCatalogStatusResponse status) {
+        if (seen.isEmpty()) {
+            logger.warn("Skipping catalog prune: export contained no movies");
+            return;
+        }
+        if (mostlyInvalid(status)) {
+            logger.warn("Skipping catalog prune: {} of {} lines were invalid", status.getInvalid(), status.getLinesRead());
+            return;
+        }
+        List<Long> missing = new ArrayList<>();
+        jdbcTemplate.query("SELECT tmdb_id FROM tmdb_catalog", rs -> {
+            long id = rs.getLong(1);
+            if (id > Integer.MAX_VALUE || !seen.get((int) id)) {
+                missing.add(id);
+            }
+        });
+        for (int from = 0; from < missing.size(); from += DELETE_CHUNK) {
+            List<Long> chunk = missing.subList(from, Math.min(from + DELETE_CHUNK, missing.size()));
+            int removed = namedParameterJdbcTemplate.update("DELETE FROM tmdb_catalog WHERE tmdb_id IN (:ids)",
+                    new MapSqlParameterSource("ids", chunk));
+            status.setRemoved(status.getRemoved() + removed);
+        }
+    }
+
+    private boolean mostlyInvalid(TmdbCatalogStatusResponse status) {
+        return status.getInvalid() > status.getLinesRead() * MAX_INVALID_RATIO;
+    }
+
+    private InputStream open(Path path) throws IOException {
+        InputStream input = Files.newInputStream(path);
+        return path.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(input, 1 << 16) : input;
+    }
+
+    // Only files inside the configured import directory can be loaded
+    private Path resolve(String fileName) {
+        Path dir = Paths.get(importDir).toAbsolutePath().normalize();
+        Path file = dir.resolve(fileName).normalize();
+        if (!file.startsWith(dir)) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Import file must be inside the catalog import directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ApiException(HttpStatus.NOT_FOUND, "Import file not found: " + fileName);
+        }
+        return file;
+    }
+
+    private TmdbCatalogStatusResponse copy(TmdbCatalogStatusResponse status) {
+        return new TmdbCatalogStatusResponse(status.getFile(), status.isFullSnapshot(), status.getStartedAt(),
+                status.getFinishedAt(), status.getLinesRead(), status.getWritten(), status.getUnchanged(),
+                status.getInvalid(), status.getRemoved(), status.getError(), false, 0, 0, 0, null);
+    }
+}
@@ -0,0 +1,327 @@
+package com.movielist.service;
+
+import com.movielist.payload.TmdbGenre;
+import com.movielist.payload.TmdbMovieDetails;
+import com.movielist.payload.TmdbMovieSummary;
+import com.movielist.payload.TmdbPageResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes the local TMDB catalog mirror. Details and search are answered from
+ * tmdb_catalog when it has the movie, so TmdbService only calls the API on a local miss.
+ * Local rows expire after the details cache TTL like API responses do. Search is only served
+ * locally while a full details import completed within that TTL, since before then the catalog
+ * holds just the movies someone has looked up and a local hit would hide the rest.
+ */
+@Service
+public class TmdbCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TmdbCatalogService.class);
+
+    private static final int PAGE_SIZE = 20;
+
+    // Same cap TMDB applies to search results
+    private static final int MAX_PAGES = 500;
+
+    private static final Pattern SEARCH_TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    // Columns only overwrite existing values when the new line has them, so an ID export
+    // (id, original title, popularity) never wipes details loaded from a richer dump
+    private static final String UPSERT_SQL =
+            "INSERT INTO tmdb_catalog (tmdb_id, title, original_title, overview, tagline, release_date, runtime, " +
+            "genres, poster_path, backdrop_path, imdb_id, popularity, vote_average, vote_count, adult, has_details, " +
+            "content_hash, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (tmdb_id) DO UPDATE SET " +
+            "title = COALESCE(EXCLUDED.title, tmdb_catalog.title), " +
+            "original_title = COALESCE(EXCLUDED.original_title, tmdb_catalog.original_title), " +
+            "overview = COALESCE(EXCLUDED.overview, tmdb_catalog.overview), " +
+            "tagline = COALESCE(EXCLUDED.tagline, tmdb_catalog.tagline), " +
+            "release_date = COALESCE(EXCLUDED.release_date, tmdb_catalog.release_date), " +
+            "runtime = COALESCE(EXCLUDED.runtime, tmdb_catalog.runtime), " +
+            "genres = COALESCE(EXCLUDED.genres, tmdb_catalog.genres), " +
+            "poster_path = COALESCE(EXCLUDED.poster_path, tmdb_catalog.poster_path), " +
+            "backdrop_path = COALESCE(EXCLUDED.backdrop_path, tmdb_catalog.backdrop_path), " +
+            "imdb_id = COALESCE(EXCLUDED.imdb_id, tmdb_catalog.imdb_id), " +
+            "popularity = COALESCE(EXCLUDED.popularity, tmdb_catalog.popularity), " +
+            "vote_average = COALESCE(EXCLUDED.vote_average, tmdb_catalog.vote_average), " +
+            "vote_count = COALESCE(EXCLUDED.vote_count, tmdb_catalog.vote_count), " +
+            "adult = COALESCE(EXCLUDED.adult, tmdb_catalog.adult), " +
+            "has_details = COALESCE(tmdb_catalog.has_details, false) OR EXCLUDED.has_details, " +
+            "content_hash = EXCLUDED.content_hash, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "WHERE tmdb_catalog.content_hash IS DISTINCT FROM EXCLUDED.content_hash";
+
+    private static final String DETAILS_COLUMNS =
+            "tmdb_id, title, original_title, overview, tagline, release_date, runtime, genres, poster_path, " +
+            "backdrop_path, imdb_id, popularity, vote_average, vote_count, adult";
+
+    @Value("${tmdb.catalog.enabled}")
+    private boolean enabled;
+
+    @Value("${tmdb.cache.ttl.details}")
+    private Duration detailsTtl;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Approximate row count; local search is skipped while the catalog is empty
+    private final AtomicLong size = new AtomicLong();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+
+    // Completion time of the last full details import, or null when there has been none
+    private volatile Instant lastCompletedImport;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSize() {
+        refreshSize();
+        try {
+            Timestamp completed = jdbcTemplate.queryForObject(
+                    "SELECT max(completed_at) FROM tmdb_catalog_imports", Timestamp.class);
+            lastCompletedImport = completed != null ? completed.toInstant() : null;
+        } catch (Exception e) {
+            logger.warn("Could not read the last TMDB catalog import: {}", e.getMessage());
+        }
+    }
+
+    public void refreshSize() {
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM tmdb_catalog", Long.class);
+            size.set(count != null ? count : 0);
+        } catch (Exception e) {
+            logger.warn("Could not count TMDB catalog rows: {}", e.getMessage());
+        }
+    }
+
+    // Called by TmdbCatalogImporter after a full snapshot with movie details loaded without errors
+    public void markImportCompleted(String fileName, long detailedMovies) {
+        Instant now = Instant.now();
+        jdbcTemplate.update(
+                "INSERT INTO tmdb_catalog_imports (file_name, detailed_movies, completed_at) VALUES (?, ?, ?)",
+                fileName, detailedMovies, Timestamp.from(now));
+        lastCompletedImport = now;
+    }
+
+    public Optional<TmdbMovieDetails> findDetails(Long tmdbId) {
+        if (!enabled || size.get() == 0) {
+            return Optional.empty();
+        }
+        // A recent full import vouches for every row it kept, even the ones it left unchanged
+        Instant cutoff = isImportFresh() ? Instant.EPOCH : Instant.now().minus(detailsTtl);
+        try {
+            List<TmdbMovieDetails> rows = jdbcTemplate.query(
+                    "SELECT " + DETAILS_COLUMNS + " FROM tmdb_catalog WHERE tmdb_id = ? AND has_details AND updated_at > ?",
+                    (rs, rowNum) -> {
+                        TmdbMovieDetails details = new TmdbMovieDetails();
+                        details.setId(rs.getLong("tmdb_id"));
+                        details.setTitle(rs.getString("title"));
+                        details.setOriginalTitle(rs.getString("original_title"));
+                        details.setOverview(rs.getString("overview"));
+                        details.setTagline(rs.getString("tagline"));
+                        details.setReleaseDate(rs.getString("release_date"));
+                        details.setRuntime(rs.getObject("runtime", Integer.class));
+                        details.setGenres(splitGenres(rs.getString("genres")));
+                        details.setPosterPath(rs.getString("poster_path"));
+                        details.setBackdropPath(rs.getString("backdrop_path"));
+                        details.setImdbId(rs.getString("imdb_id"));
+                        details.setPopularity(rs.getObject("popularity", Double.class));
+                        details.setVoteAverage(rs.getObject("vote_average", Double.class));
+                        details.setVoteCount(rs.getObject("vote_count", Integer.class));
+                        details.setAdult(rs.getObject("adult", Boolean.class));
+                        return details;
+                    }, tmdbId, Timestamp.from(cutoff));
+            return record(rows.stream().findFirst());
+        } catch (Exception e) {
+            logger.warn("Local catalog lookup failed for TMDB ID {}: {}", tmdbId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public Optional<TmdbPageResponse> search(String query, Integer page) {
+        if (!enabled || size.get() == 0 || !isImportFresh()) {
+            return Optional.empty();
+        }
+        String tsQuery = toPrefixQuery(query);
+        int pageNumber = page != null ? Math.max(1, page) : 1;
+        if (tsQuery.isEmpty() || pageNumber > MAX_PAGES) {
+            return Optional.empty();
+        }
+        try {
+            List<TmdbMovieSummary> results = jdbcTemplate.query(
+                    "SELECT tmdb_id, COALESCE(title, original_title) AS title, overview, release_date, poster_path, " +
+                    "backdrop_path, popularity, vote_average, vote_count FROM tmdb_catalog " +
+                    "WHERE search_vector @@ to_tsquery('simple', ?) AND has_details AND NOT COALESCE(adult, false) " +
+                    "ORDER BY lower(COALESCE(title, original_title)) = lower(?) DESC, popularity DESC NULLS LAST, tmdb_id " +
+                    "LIMIT ? OFFSET ?",
+                    (rs, rowNum) -> new TmdbMovieSummary(
+                            rs.getLong("tmdb_id"),
+                            rs.getString("title"),
+                            rs.getString("overview"),
+                            rs.getString("release_date"),
+                            rs.getString("poster_path"),
+                            rs.getString("backdrop_path"),
+                            null,
+                            rs.getObject("popularity", Double.class),
+                            rs.getObject("vote_average", Double.class),
+                            rs.getObject("vote_count", Integer.class)),
+                    tsQuery, query.trim(), PAGE_SIZE, (pageNumber - 1) * PAGE_SIZE);
+            if (results.isEmpty()) {
+                return record(Optional.empty());
+            }
+
+            // Bounded count so a very common word doesn't count the whole catalog
+            Integer total = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM (SELECT 1 FROM tmdb_catalog WHERE search_vector @@ to_tsquery('simple', ?) " +
+                    "AND has_details AND NOT COALESCE(adult, false) LIMIT ?) matches",
+                    Integer.class, tsQuery, PAGE_SIZE * MAX_PAGES);
+            int totalResults = total != null ? total : results.size();
+            int totalPages = (totalResults + PAGE_SIZE - 1) / PAGE_SIZE;
+            return record(Optional.of(new TmdbPageResponse(pageNumber, results, totalPages, totalResults)));
+        } catch (Exception e) {
+            logger.warn("Local catalog search failed for '{}': {}", query, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Write-through for details fetched from the API, so the next lookup is served locally
+    public void saveDetails(TmdbMovieDetails details) {
+        if (!enabled || details == null || details.getId() == null) {
+            return;
+        }
+        try {
+            int[] written = upsert(Collections.singletonList(details));
+            if (written.length > 0 && written[0] > 0) {
+                size.incrementAndGet();
+            } else {
+                // Unchanged content skips the upsert, but the row was still just confirmed by the API
+                jdbcTemplate.update("UPDATE tmdb_catalog SET updated_at = ? WHERE tmdb_id = ?",
+                        Timestamp.from(Instant.now()), details.getId());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not store TMDB ID {} in the local catalog: {}", details.getId(), e.getMessage());
+        }
+    }
+
+    public int[] upsert(List<TmdbMovieDetails> movies) {
+        if (movies.isEmpty()) {
+            return new int[0];
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbcTemplate.batchUpdate(UPSERT_SQL, movies, movies.size(), (ps, movie) -> {
+            ps.setLong(1, movie.getId());
+            ps.setString(2, truncate(movie.getTitle(), 255));
+            ps.setString(3, truncate(movie.getOriginalTitle(), 255));
+            ps.setString(4, truncate(movie.getOverview(), 4000));
+            ps.setString(5, truncate(movie.getTagline(), 255));
+            ps.setString(6, blankToNull(movie.getReleaseDate()));
+            ps.setObject(7, movie.getRuntime(), Types.INTEGER);
+            ps.setString(8, truncate(joinGenres(movie.getGenres()), 255));
+            ps.setString(9, movie.getPosterPath());
+            ps.setString(10, movie.getBackdropPath());
+            ps.setString(11, movie.getImdbId());
+            ps.setObject(12, movie.getPopularity(), Types.DOUBLE);
+            ps.setObject(13, movie.getVoteAverage(), Types.DOUBLE);
+            ps.setObject(14, movie.getVoteCount(), Types.INTEGER);
+            ps.setObject(15, movie.getAdult(), Types.BOOLEAN);
+            ps.setBoolean(16, movie.getTitle() != null);
+            ps.setLong(17, contentHash(movie));
+            ps.setTimestamp(18, now);
+        })[0];
+    }
+
+    public long getSize() {
+        return size.get();
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getLocalMisses() {
+        return localMisses.sum();
+    }
+
+    public Instant getLastCompletedImport() {
+        return lastCompletedImport;
+    }
+
+    private boolean isImportFresh() {
+        Instant completed = lastCompletedImport;
+        return completed != null && completed.isAfter(Instant.now().minus(detailsTtl));
+    }
+
+    private <T> Optional<T> record(Optional<T> result) {
+        if (result.isPresent()) {
+            localHits.increment();
+        } else {
+            localMisses.increment();
+        }
+        return result;
+    }
+
+    // "star wa" -> "star:* & wa:*", so partially typed words still match
+    static String toPrefixQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = SEARCH_TOKEN.matcher(query.toLowerCase(Locale.ROOT));
+        while (matcher.find() && tokens.size() < 8) {
+            tokens.add(matcher.group() + ":*");
+        }
+        return String.join(" & ", tokens);
+    }
+
+    private static long contentHash(TmdbMovieDetails movie) {
+        return Objects.hash(movie.getTitle(), movie.getOriginalTitle(), movie.getOverview(), movie.getTagline(),
+                movie.getReleaseDate(), movie.getRuntime(), joinGenres(movie.getGenres()), movie.getPosterPath(),
+                movie.getBackdropPath(), movie.getImdbId(), movie.getPopularity(), movie.getVoteAverage(),
+                movie.getVoteCount(), movie.getAdult());
+    }
+
+    private static String joinGenres(List<TmdbGenre> genres) {
+        if (genres == null || genres.isEmpty()) {
+            return null;
+        }
+        return genres.stream()
+                .map(TmdbGenre::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(","));
+    }
+
+    private static List<TmdbGenre> splitGenres(String genres) {
+        if (genres == null || genres.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(genres.split(","))
+                .map(name -> new TmdbGenre(null, name))
+                .collect(Collectors.toList());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
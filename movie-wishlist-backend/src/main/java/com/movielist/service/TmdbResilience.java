@@ -0,0 +1,134 @@
+package com.movielist.service;
+
+import com.movielist.exception.TmdbUnavailableException;
+import com.movielist.payload.TmdbResilienceStatsResponse;
+import com.movielist.util.CircuitBreaker;
+import com.movielist.util.TokenBucket;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Guards every upstream TMDB call with a token-bucket rate limiter matching the API quota,
+ * a circuit breaker that fails fast after consecutive upstream failures, and a bulkhead
+ * capping concurrent calls. Rejections surface as TmdbUnavailableException, which the cache
+ * answers with whatever copy it still holds.
+ */
+@Service
+public class TmdbResilience {
+
+    @Value("${tmdb.resilience.rate-limit.requests-per-second}")
+    private double requestsPerSecond;
+
+    @Value("${tmdb.resilience.rate-limit.burst}")
+    private int burst;
+
+    @Value("${tmdb.resilience.rate-limit.max-wait}")
+    private Duration maxWait;
+
+    @Value("${tmdb.resilience.circuit.failure-threshold}")
+    private int failureThreshold;
+
+    @Value("${tmdb.resilience.circuit.open-duration}")
+    private Duration openDuration;
+
+    @Value("${tmdb.resilience.bulkhead.max-concurrent-calls}")
+    private int maxConcurrentCalls;
+
+    private TokenBucket rateLimiter;
+    private CircuitBreaker circuitBreaker;
+    private Semaphore bulkhead;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejectedByCircuit = new LongAdder();
+    private final LongAdder rejectedByRateLimit = new LongAdder();
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+    private final LongAdder delayedByRateLimit = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        rateLimiter = new TokenBucket(burst, requestsPerSecond);
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        bulkhead = new Semaphore(maxConcurrentCalls);
+    }
+
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedByCircuit.increment();
+            return CompletableFuture.failedFuture(new TmdbUnavailableException("Movie database is unavailable, try again shortly"));
+        }
+
+        long waitNanos = rateLimiter.reserve(maxWait.toNanos());
+        if (waitNanos < 0) {
+            rejectedByRateLimit.increment();
+            circuitBreaker.onIgnored();
+            return CompletableFuture.failedFuture(new TmdbUnavailableException("Movie database request limit reached, try again shortly"));
+        }
+        if (waitNanos == 0) {
+            return callWithinBulkhead(call);
+        }
+
+        // Wait out the reservation on a timer rather than holding the caller's thread
+        delayedByRateLimit.increment();
+        return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS))
+                .thenCompose(ignored -> callWithinBulkhead(call));
+    }
+
+    public TmdbResilienceStatsResponse getStats() {
+        return new TmdbResilienceStatsResponse(
+                circuitBreaker.getState().name(),
+                circuitBreaker.getConsecutiveFailures(),
+                circuitBreaker.getTimesOpened(),
+                rateLimiter.getAvailableTokens(),
+                maxConcurrentCalls - bulkhead.availablePermits(),
+                maxConcurrentCalls,
+                calls.sum(),
+                failures.sum(),
+                rejectedByCircuit.sum(),
+                rejectedByRateLimit.sum(),
+                delayedByRateLimit.sum(),
+                rejectedByBulkhead.sum());
+    }
+
+    private <T> CompletableFuture<T> callWithinBulkhead(Supplier<CompletableFuture<T>> call) {
+        if (!bulkhead.tryAcquire()) {
+            rejectedByBulkhead.increment();
+            circuitBreaker.onIgnored();
+            return CompletableFuture.failedFuture(new TmdbUnavailableException("Too many concurrent movie database requests"));
+        }
+
+        calls.increment();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            recordOutcome(e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            bulkhead.release();
+            recordOutcome(error);
+        });
+    }
+
+    // Only upstream unavailability trips the breaker; a 404 for an unknown movie is a healthy response
+    private void recordOutcome(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TmdbUnavailableException) {
+            failures.increment();
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+}
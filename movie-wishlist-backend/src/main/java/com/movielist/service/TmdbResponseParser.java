@@ -0,0 +1,209 @@
+package com.movielist.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movielist.payload.TmdbGenre;
+import com.movielist.payload.TmdbMovieDetails;
+import com.movielist.payload.TmdbMovieSummary;
+import com.movielist.payload.TmdbPageResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for TMDB responses. Reads tokens straight into the typed DTOs and skips
+ * every field we do not use, so no intermediate tree or map is built for a response.
+ */
+@Component
+public class TmdbResponseParser {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JsonFactory jsonFactory;
+
+    @PostConstruct
+    public void init() {
+        jsonFactory = objectMapper.getFactory();
+    }
+
+    public TmdbPageResponse parsePage(byte[] json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            expectStartObject(parser);
+            TmdbPageResponse page = new TmdbPageResponse();
+            page.setResults(new ArrayList<>());
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "page" -> page.setPage(intValue(parser, value));
+                    case "total_pages" -> page.setTotalPages(intValue(parser, value));
+                    case "total_results" -> page.setTotalResults(intValue(parser, value));
+                    case "results" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                page.getResults().add(parseSummary(parser));
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return page;
+        }
+    }
+
+    public TmdbMovieDetails parseDetails(byte[] json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return readDetails(parser);
+        }
+    }
+
+    // Used for JSON-lines catalog exports, one movie object per line
+    public TmdbMovieDetails parseDetails(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return readDetails(parser);
+        }
+    }
+
+    private TmdbMovieDetails readDetails(JsonParser parser) throws IOException {
+        expectStartObject(parser);
+        TmdbMovieDetails details = new TmdbMovieDetails();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> details.setId(longValue(parser, value));
+                case "title" -> details.setTitle(textValue(parser, value));
+                case "original_title" -> details.setOriginalTitle(textValue(parser, value));
+                case "overview" -> details.setOverview(textValue(parser, value));
+                case "tagline" -> details.setTagline(textValue(parser, value));
+                case "release_date" -> details.setReleaseDate(textValue(parser, value));
+                case "runtime" -> details.setRuntime(intValue(parser, value));
+                case "poster_path" -> details.setPosterPath(textValue(parser, value));
+                case "backdrop_path" -> details.setBackdropPath(textValue(parser, value));
+                case "imdb_id" -> details.setImdbId(textValue(parser, value));
+                case "popularity" -> details.setPopularity(doubleValue(parser, value));
+                case "vote_average" -> details.setVoteAverage(doubleValue(parser, value));
+                case "vote_count" -> details.setVoteCount(intValue(parser, value));
+                case "genres" -> details.setGenres(parseGenres(parser, value));
+                case "adult" -> details.setAdult(booleanValue(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return details;
+    }
+
+    private TmdbMovieSummary parseSummary(JsonParser parser) throws IOException {
+        TmdbMovieSummary movie = new TmdbMovieSummary();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> movie.setId(longValue(parser, value));
+                case "title" -> movie.setTitle(textValue(parser, value));
+                case "overview" -> movie.setOverview(textValue(parser, value));
+                case "release_date" -> movie.setReleaseDate(textValue(parser, value));
+                case "poster_path" -> movie.setPosterPath(textValue(parser, value));
+                case "backdrop_path" -> movie.setBackdropPath(textValue(parser, value));
+                case "popularity" -> movie.setPopularity(doubleValue(parser, value));
+                case "vote_average" -> movie.setVoteAverage(doubleValue(parser, value));
+                case "vote_count" -> movie.setVoteCount(intValue(parser, value));
+                case "genre_ids" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        List<Long> genreIds = new ArrayList<>();
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            genreIds.add(parser.getLongValue());
+                        }
+                        movie.setGenreIds(genreIds);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return movie;
+    }
+
+    private List<TmdbGenre> parseGenres(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<TmdbGenre> genres = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            TmdbGenre genre = new TmdbGenre();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken fieldValue = parser.nextToken();
+                switch (field) {
+                    case "id" -> genre.setId(longValue(parser, fieldValue));
+                    case "name" -> genre.setName(textValue(parser, fieldValue));
+                    default -> parser.skipChildren();
+                }
+            }
+            genres.add(genre);
+        }
+        return genres;
+    }
+
+    private void expectStartObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object from the movie database");
+        }
+    }
+
+    private String textValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        skip(parser);
+        return null;
+    }
+
+    private Long longValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getLongValue();
+        }
+        skip(parser);
+        return null;
+    }
+
+    private Integer intValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getValueAsInt();
+        }
+        skip(parser);
+        return null;
+    }
+
+    private Double doubleValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        skip(parser);
+        return null;
+    }
+
+    private Boolean booleanValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isBoolean()) {
+            return value == JsonToken.VALUE_TRUE;
+        }
+        skip(parser);
+        return null;
+    }
+
+    // Unexpected shapes (objects or arrays where a scalar belongs) are skipped and read as null
+    private void skip(JsonParser parser) throws IOException {
+        parser.skipChildren();
+    }
+}
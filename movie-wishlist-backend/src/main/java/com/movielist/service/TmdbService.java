@@ -1,19 +1,30 @@
 package com.movielist.service;
 
+import com.movielist.exception.TmdbUnavailableException;
 import com.movielist.payload.MovieResponse;
+import com.movielist.payload.TmdbCacheStatsResponse;
+import com.movielist.payload.TmdbMovieDetails;
+import com.movielist.payload.TmdbMovieSummary;
+import com.movielist.payload.TmdbPageResponse;
+import com.movielist.payload.TmdbResilienceStatsResponse;
+import com.movielist.util.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class TmdbService {
@@ -26,162 +37,259 @@ public class TmdbService {
     @Value("${tmdb.api.base-url}")
     private String baseUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${tmdb.images.poster-base-url}")
+    private String posterBaseUrl;
 
-    public Map<String, Object> searchMovies(String query, Integer page) {
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/search/movie")
-                .queryParam("api_key", apiKey)
+    @Value("${tmdb.cache.ttl.search}")
+    private Duration searchTtl;
+
+    @Value("${tmdb.cache.ttl.details}")
+    private Duration detailsTtl;
+
+    @Value("${tmdb.cache.ttl.popular}")
+    private Duration popularTtl;
+
+    @Value("${tmdb.cache.ttl.top-rated}")
+    private Duration topRatedTtl;
+
+    @Value("${tmdb.cache.ttl.upcoming}")
+    private Duration upcomingTtl;
+
+    @Value("${tmdb.cache.ttl.recommendations}")
+    private Duration recommendationsTtl;
+
+    @Value("${tmdb.http.request-timeout}")
+    private Duration requestTimeout;
+
+    @Autowired
+    private HttpClient httpClient;
+
+    // Concurrent identical requests (cache misses and background refreshes alike) share one upstream call
+    private final SingleFlight<TmdbPageResponse> inFlightPages = new SingleFlight<>();
+    private final SingleFlight<TmdbMovieDetails> inFlightDetails = new SingleFlight<>();
+
+    @Autowired
+    private TitleSuggestService titleSuggestService;
+
+    @Autowired
+    private TmdbCache tmdbCache;
+
+    @Autowired
+    private TmdbResponseParser responseParser;
+
+    @Autowired
+    private TmdbCatalogService catalogService;
+
+    @Autowired
+    private TmdbResilience resilience;
+
+    public TmdbPageResponse searchMovies(String query, Integer page) {
+        return join(searchMoviesAsync(query, page));
+    }
+
+    public TmdbMovieDetails getMovieDetails(Long movieId) {
+        return join(getMovieDetailsAsync(movieId));
+    }
+
+    public TmdbPageResponse getPopularMovies(Integer page) {
+        return join(getPopularMoviesAsync(page));
+    }
+
+    public TmdbPageResponse getTopRatedMovies(Integer page) {
+        return join(getTopRatedMoviesAsync(page));
+    }
+
+    public TmdbPageResponse getUpcomingMovies(Integer page) {
+        return join(getUpcomingMoviesAsync(page));
+    }
+
+    public TmdbPageResponse getMovieRecommendations(Long movieId, Integer page) {
+        return join(getMovieRecommendationsAsync(movieId, page));
+    }
+
+    public CompletableFuture<TmdbPageResponse> searchMoviesAsync(String query, Integer page) {
+        Optional<TmdbPageResponse> local = catalogService.search(query, page);
+        if (local.isPresent()) {
+            return CompletableFuture.completedFuture(local.get());
+        }
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/search/movie")
                 .queryParam("query", query)
-                .queryParam("page", page != null ? page : 1)
-                .build()
-                .toUriString();
+                .queryParam("page", page != null ? page : 1);
+        return fetchPage(uri, searchTtl, "Error searching movies", true);
+    }
 
-        try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            return response.getBody();
-        } catch (HttpClientErrorException e) {
-            logger.error("TMDB API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new RuntimeException("Error searching movies: " + e.getMessage(), e);
-        } catch (RestClientException e) {
-            logger.error("TMDB API connection error", e);
-            throw new RuntimeException("Error connecting to movie database: " + e.getMessage(), e);
+    public CompletableFuture<TmdbMovieDetails> getMovieDetailsAsync(Long movieId) {
+        Optional<TmdbMovieDetails> local = catalogService.findDetails(movieId);
+        if (local.isPresent()) {
+            return CompletableFuture.completedFuture(local.get());
         }
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/" + movieId);
+        String key = uri.build().toUriString();
+        return tmdbCache.get(key, detailsTtl, TmdbMovieDetails.class, () -> inFlightDetails.execute(key,
+                () -> request(withApiKey(uri), "Error getting movie details", responseParser::parseDetails)
+                        .thenApply(details -> {
+                            catalogService.saveDetails(details);
+                            return details;
+                        })));
     }
 
-    public Map<String, Object> getMovieDetails(Long movieId) {
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/" + movieId)
-                .queryParam("api_key", apiKey)
-                .build()
-                .toUriString();
+    public CompletableFuture<TmdbPageResponse> getPopularMoviesAsync(Integer page) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/popular")
+                .queryParam("page", page != null ? page : 1);
+        return fetchPage(uri, popularTtl, "Error getting popular movies", true);
+    }
 
-        try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            return response.getBody();
-        } catch (HttpClientErrorException e) {
-            logger.error("TMDB API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new RuntimeException("Error getting movie details: " + e.getMessage(), e);
-        } catch (RestClientException e) {
-            logger.error("TMDB API connection error", e);
-            throw new RuntimeException("Error connecting to movie database: " + e.getMessage(), e);
-        }
+    public CompletableFuture<TmdbPageResponse> getTopRatedMoviesAsync(Integer page) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/top_rated")
+                .queryParam("page", page != null ? page : 1);
+        return fetchPage(uri, topRatedTtl, "Error getting top-rated movies", true);
     }
 
-    public Map<String, Object> getPopularMovies(Integer page) {
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/popular")
-                .queryParam("api_key", apiKey)
-                .queryParam("page", page != null ? page : 1)
-                .build()
-                .toUriString();
+    public CompletableFuture<TmdbPageResponse> getUpcomingMoviesAsync(Integer page) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/upcoming")
+                .queryParam("page", page != null ? page : 1);
+        return fetchPage(uri, upcomingTtl, "Error getting upcoming movies", true);
+    }
 
-        try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            return response.getBody();
-        } catch (HttpClientErrorException e) {
-            logger.error("TMDB API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new RuntimeException("Error getting popular movies: " + e.getMessage(), e);
-        } catch (RestClientException e) {
-            logger.error("TMDB API connection error", e);
-            throw new RuntimeException("Error connecting to movie database: " + e.getMessage(), e);
-        }
+    public CompletableFuture<TmdbPageResponse> getMovieRecommendationsAsync(Long movieId, Integer page) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/" + movieId + "/recommendations")
+                .queryParam("page", page != null ? page : 1);
+        return fetchPage(uri, recommendationsTtl, "Error getting movie recommendations", false);
     }
 
-    public Map<String, Object> getTopRatedMovies(Integer page) {
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/top_rated")
-                .queryParam("api_key", apiKey)
-                .queryParam("page", page != null ? page : 1)
-                .build()
-                .toUriString();
+    public TmdbResilienceStatsResponse getResilienceStats() {
+        return resilience.getStats();
+    }
 
-        ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-        return response.getBody();
+    public TmdbCacheStatsResponse getCacheStats() {
+        TmdbCacheStatsResponse stats = tmdbCache.getStats();
+        stats.setUpstreamRequests(inFlightPages.getExecutedCount() + inFlightDetails.getExecutedCount());
+        stats.setCoalescedRequests(inFlightPages.getSharedCount() + inFlightDetails.getSharedCount());
+        return stats;
     }
 
-    public Map<String, Object> getUpcomingMovies(Integer page) {
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/upcoming")
-                .queryParam("api_key", apiKey)
-                .queryParam("page", page != null ? page : 1)
-                .build()
-                .toUriString();
+    // The cache key is the request URL without the api key, so rotating the key keeps cached entries valid
+    private CompletableFuture<TmdbPageResponse> fetchPage(UriComponentsBuilder uri, Duration ttl, String errorMessage,
+                                                          boolean feedsSuggestions) {
+        String key = uri.build().toUriString();
+        return tmdbCache.get(key, ttl, TmdbPageResponse.class, () -> inFlightPages.execute(key,
+                () -> request(withApiKey(uri), errorMessage, responseParser::parsePage)
+                        .thenApply(page -> {
+                            if (feedsSuggestions) {
+                                titleSuggestService.recordTmdbResults(page);
+                            }
+                            return page;
+                        })));
+    }
 
-        ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-        return response.getBody();
+    private URI withApiKey(UriComponentsBuilder uri) {
+        return uri.cloneBuilder().queryParam("api_key", apiKey).build().toUri();
     }
 
-    public Map<String, Object> getMovieRecommendations(Long movieId, Integer page) {
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/movie/" + movieId + "/recommendations")
-                .queryParam("api_key", apiKey)
-                .queryParam("page", page != null ? page : 1)
-                .build()
-                .toUriString();
+    private <T> CompletableFuture<T> request(URI url, String errorMessage, ResponseReader<T> reader) {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return resilience.execute(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()))
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        if (cause instanceof TmdbUnavailableException) {
+                            throw new CompletionException(cause);
+                        }
+                        logger.error("TMDB API connection error: {}", cause.toString());
+                        throw new CompletionException(new TmdbUnavailableException("Error connecting to movie database: " + cause.getMessage(), cause));
+                    }
+                    if (response.statusCode() >= 400) {
+                        String body = new String(response.body(), StandardCharsets.UTF_8);
+                        logger.error("TMDB API error: {} - {}", response.statusCode(), body);
+                        // Throttling and server errors mean TMDB is unhealthy; other 4xx are about this request
+                        if (response.statusCode() == 429 || response.statusCode() >= 500) {
+                            throw new CompletionException(new TmdbUnavailableException(
+                                    "Error connecting to movie database: " + response.statusCode() + " " + body));
+                        }
+                        throw new CompletionException(new RuntimeException(errorMessage + ": " + response.statusCode() + " " + body));
+                    }
+                    try {
+                        return reader.read(response.body());
+                    } catch (IOException e) {
+                        throw new CompletionException(new RuntimeException("Error reading movie database response: " + e.getMessage(), e));
+                    }
+                });
+    }
 
+    private <T> T join(CompletableFuture<T> future) {
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            return response.getBody();
-        } catch (HttpClientErrorException e) {
-            logger.error("TMDB API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new RuntimeException("Error getting movie recommendations: " + e.getMessage(), e);
-        } catch (RestClientException e) {
-            logger.error("TMDB API connection error", e);
-            throw new RuntimeException("Error connecting to movie database: " + e.getMessage(), e);
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
         }
     }
 
     // Helper method to convert TMDB movie data to our MovieResponse format
-    public MovieResponse convertTmdbMovieToMovieResponse(Map<String, Object> tmdbMovie) {
-        try {
-            MovieResponse movieResponse = new MovieResponse();
-            
-            // TMDB uses 'id' for movie ID
-            if (tmdbMovie.containsKey("id")) {
-                movieResponse.setId(Long.valueOf(tmdbMovie.get("id").toString()));
-            }
-            
-            // TMDB uses 'title' for movie title
-            if (tmdbMovie.containsKey("title")) {
-                movieResponse.setTitle((String) tmdbMovie.get("title"));
-            }
-            
-            // TMDB uses 'genre_ids' or has nested 'genres' object
-            // For simplicity, we'll just use the first genre if available
-            if (tmdbMovie.containsKey("genres") && tmdbMovie.get("genres") instanceof List) {
-                List<Map<String, Object>> genres = (List<Map<String, Object>>) tmdbMovie.get("genres");
-                if (!genres.isEmpty()) {
-                    movieResponse.setGenre((String) genres.get(0).get("name"));
-                }
-            }
-            
-            // TMDB uses 'release_date' in format 'YYYY-MM-DD'
-            if (tmdbMovie.containsKey("release_date") && tmdbMovie.get("release_date") != null) {
-                String releaseDate = (String) tmdbMovie.get("release_date");
-                if (releaseDate.length() >= 4) {
-                    movieResponse.setReleaseYear(Integer.valueOf(releaseDate.substring(0, 4)));
-                }
-            }
-            
-            // TMDB uses 'runtime' for movie duration in minutes
-            if (tmdbMovie.containsKey("runtime") && tmdbMovie.get("runtime") != null) {
-                movieResponse.setRuntime(Integer.valueOf(tmdbMovie.get("runtime").toString()));
-            }
-            
-            // TMDB uses 'poster_path' for poster URL, need to prepend base image URL
-            if (tmdbMovie.containsKey("poster_path") && tmdbMovie.get("poster_path") != null) {
-                movieResponse.setPosterUrl("https://image.tmdb.org/t/p/w500" + tmdbMovie.get("poster_path"));
+    public MovieResponse convertTmdbMovieToMovieResponse(TmdbMovieDetails tmdbMovie) {
+        MovieResponse movieResponse = convertTmdbMovie(tmdbMovie.getId(), tmdbMovie.getTitle(),
+                tmdbMovie.getReleaseDate(), tmdbMovie.getPosterPath());
+
+        // Details carry named genres; we keep the first one
+        if (tmdbMovie.getGenres() != null && !tmdbMovie.getGenres().isEmpty()) {
+            movieResponse.setGenre(tmdbMovie.getGenres().get(0).getName());
+        }
+        movieResponse.setRuntime(tmdbMovie.getRuntime());
+        return movieResponse;
+    }
+
+    // Search and list results only carry genre ids and no runtime
+    public MovieResponse convertTmdbMovieToMovieResponse(TmdbMovieSummary tmdbMovie) {
+        return convertTmdbMovie(tmdbMovie.getId(), tmdbMovie.getTitle(), tmdbMovie.getReleaseDate(), tmdbMovie.getPosterPath());
+    }
+
+    // Poster base is either TMDB's CDN or our own /api/images/poster proxy; both use {base}/{size}{path}
+    public String posterUrl(String size, String posterPath) {
+        return posterBaseUrl + "/" + size + posterPath;
+    }
+
+    private MovieResponse convertTmdbMovie(Long id, String title, String releaseDate, String posterPath) {
+        MovieResponse movieResponse = new MovieResponse();
+        movieResponse.setId(id);
+        movieResponse.setTmdbId(id);
+        movieResponse.setTitle(title);
+
+        // TMDB uses 'release_date' in format 'YYYY-MM-DD'
+        if (releaseDate != null && releaseDate.length() >= 4 && Character.isDigit(releaseDate.charAt(0))) {
+            try {
+                movieResponse.setReleaseYear(Integer.valueOf(releaseDate.substring(0, 4)));
+            } catch (NumberFormatException e) {
+                logger.warn("Unexpected TMDB release date: {}", releaseDate);
             }
-            
-            // Set default values for our custom fields
-            movieResponse.setStatus(null); // External movies don't have a status yet
-            movieResponse.setRating(null); // External movies don't have user ratings yet
-            movieResponse.setReview(null); // External movies don't have user reviews yet
-            movieResponse.setUserId(null); // External movies don't belong to a user yet
-            movieResponse.setUsername(null); // External movies don't belong to a user yet
-            movieResponse.setLikesCount(0L); // External movies don't have likes yet
-            movieResponse.setCommentsCount(0L); // External movies don't have comments yet
-            movieResponse.setUserLiked(false); // Current user hasn't liked this external movie yet
-            
-            return movieResponse;
-        } catch (ClassCastException | NullPointerException | NumberFormatException e) {
-            logger.error("Error converting TMDB movie data: {}", e.getMessage());
-            throw new RuntimeException("Error processing movie data: " + e.getMessage(), e);
         }
+
+        // TMDB uses 'poster_path' for poster URL, need to prepend base image URL
+        if (posterPath != null) {
+            movieResponse.setPosterUrl(posterUrl("w500", posterPath));
+        }
+
+        // Set default values for our custom fields
+        movieResponse.setStatus(null); // External movies don't have a status yet
+        movieResponse.setRating(null); // External movies don't have user ratings yet
+        movieResponse.setReview(null); // External movies don't have user reviews yet
+        movieResponse.setUserId(null); // External movies don't belong to a user yet
+        movieResponse.setUsername(null); // External movies don't belong to a user yet
+        movieResponse.setLikesCount(0L); // External movies don't have likes yet
+        movieResponse.setCommentsCount(0L); // External movies don't have comments yet
+        movieResponse.setUserLiked(false); // Current user hasn't liked this external movie yet
+
+        return movieResponse;
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(byte[] body) throws IOException;
     }
-}
\ No newline at end of file
+}
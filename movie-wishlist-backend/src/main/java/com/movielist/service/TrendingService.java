@@ -0,0 +1,279 @@
+package com.movielist.service;
+
+import com.movielist.entity.Movie;
+import com.movielist.event.CommentAddedEvent;
+import com.movielist.event.MovieLikedEvent;
+import com.movielist.event.MovieStatusChangedEvent;
+import com.movielist.payload.TrendingMovieResponse;
+import com.movielist.util.DecayedWindow;
+import com.movielist.util.TopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trending titles over the last hour, day and week, kept in memory from like, comment, add and
+ * watch events instead of aggregating the likes and comments tables per page view. Each title
+ * holds two ring buffers of weighted event counts: five-minute buckets for the hour and hourly
+ * buckets for the day and week. A window's ranking is a top-K pass over every title's decayed
+ * score, recomputed on request once the previous one is older than the refresh interval.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    private static final long WEEK = 7 * DAY;
+
+    private static final float LIKE_WEIGHT = 1f;
+    private static final float COMMENT_WEIGHT = 2f;
+    private static final float ADD_WEIGHT = 1f;
+    private static final float WATCH_WEIGHT = 2f;
+
+    private static final int MAX_RESULTS = 100;
+    private static final int MAX_RESOLVED_MOVIES = 50_000;
+
+    public enum Window {
+        HOUR(TrendingService.HOUR, 20 * MINUTE),
+        DAY(TrendingService.DAY, 6 * TrendingService.HOUR),
+        WEEK(TrendingService.WEEK, 2 * TrendingService.DAY);
+
+        private final long spanMillis;
+        private final double halfLifeMillis;
+
+        Window(long spanMillis, double halfLifeMillis) {
+            this.spanMillis = spanMillis;
+            this.halfLifeMillis = halfLifeMillis;
+        }
+    }
+
+    @Value("${trending.refresh-interval}")
+    private Duration refreshInterval;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("backgroundJobExecutor")
+    private TaskExecutor backgroundJobExecutor;
+
+    // Guards titles, movieTitles and aliases
+    private final Object lock = new Object();
+
+    private final Map<String, Title> titles = new HashMap<>();
+
+    // Library copy id -> its title, so repeat events on a copy skip the database
+    private final Map<Long, Title> movieTitles = new HashMap<>();
+
+    private Map<String, Long> aliases = Collections.emptyMap();
+
+    private final Map<Window, Ranking> rankings = new ConcurrentHashMap<>();
+
+    // Set before any listener can run: events after it are counted live, events up to it by the seed
+    private final long seedCutoff = System.currentTimeMillis();
+
+    // Replays the last week of adds, watches and comments from the activity log; likes carry no timestamp
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        backgroundJobExecutor.execute(() -> {
+            try {
+                Map<String, Long> loaded = MovieKeys.loadAliases(jdbcTemplate);
+                synchronized (lock) {
+                    aliases = loaded;
+                }
+                long[] events = new long[1];
+                jdbcTemplate.query(
+                        "SELECT e.type, e.created_at, m.id, m.tmdb_id, m.title, m.genre, m.release_year, m.poster_url " +
+                                "FROM activity_events e JOIN movies m ON m.id = e.movie_id " +
+                                "WHERE e.created_at > ? AND e.created_at <= ? " +
+                                "AND e.type IN ('MOVIE_ADDED', 'MOVIE_WATCHED', 'COMMENTED')",
+                        rs -> {
+                            String type = rs.getString(1);
+                            float weight = "MOVIE_ADDED".equals(type) ? ADD_WEIGHT
+                                    : "MOVIE_WATCHED".equals(type) ? WATCH_WEIGHT : COMMENT_WEIGHT;
+                            MovieRow movie = new MovieRow(rs.getObject(4, Long.class), rs.getString(5),
+                                    rs.getString(6), rs.getObject(7, Integer.class), rs.getString(8));
+                            record(rs.getLong(3), movie, rs.getTimestamp(2).getTime(), weight);
+                            events[0]++;
+                        },
+                        new Timestamp(seedCutoff - WEEK), new Timestamp(seedCutoff));
+                logger.info("Seeded trending scores from {} recent activity events", events[0]);
+            } catch (Exception e) {
+                logger.warn("Failed to seed trending scores: {}", e.getMessage());
+            }
+        });
+    }
+
+    @EventListener
+    public void onMovieLiked(MovieLikedEvent event) {
+        // Unlikes cancel the like, so liking and unliking in a loop does not push a title up
+        record(event.getMovieId(), event.isLiked() ? LIKE_WEIGHT : -LIKE_WEIGHT);
+    }
+
+    @EventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        record(event.getComment().getMovieId(), COMMENT_WEIGHT);
+    }
+
+    @EventListener
+    public void onMovieStatusChanged(MovieStatusChangedEvent event) {
+        record(event.getMovieId(), event.getStatus() == Movie.Status.WATCHED ? WATCH_WEIGHT : ADD_WEIGHT);
+    }
+
+    public List<TrendingMovieResponse> getTrending(Window window, int limit) {
+        long now = System.currentTimeMillis();
+        Ranking ranking = rankings.get(window);
+        if (ranking == null || now - ranking.computedAt > refreshInterval.toMillis()) {
+            ranking = rank(window, now);
+            rankings.put(window, ranking);
+        }
+        List<TrendingMovieResponse> movies = ranking.movies;
+        return movies.subList(0, Math.min(Math.max(limit, 0), movies.size()));
+    }
+
+    // Drops titles with no events left in any ring and reloads the title aliases
+    @Scheduled(fixedDelayString = "${trending.compact-interval-ms}")
+    public void compact() {
+        Map<String, Long> loaded;
+        try {
+            loaded = MovieKeys.loadAliases(jdbcTemplate);
+        } catch (Exception e) {
+            logger.warn("Failed to reload trending title aliases: {}", e.getMessage());
+            loaded = null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            titles.values().removeIf(title -> title.hourly.isExpired(now));
+            movieTitles.clear();
+            if (loaded != null) {
+                aliases = loaded;
+            }
+        }
+    }
+
+    // Runs inside the publisher's call, so a failure is logged rather than failing the user's request
+    private void record(Long movieId, float weight) {
+        if (movieId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            Title title = movieTitles.get(movieId);
+            if (title != null) {
+                title.add(now, weight);
+                return;
+            }
+        }
+        try {
+            MovieRow movie = jdbcTemplate.query(
+                    "SELECT tmdb_id, title, genre, release_year, poster_url FROM movies WHERE id = ?",
+                    rs -> rs.next() ? new MovieRow(rs.getObject(1, Long.class), rs.getString(2), rs.getString(3),
+                            rs.getObject(4, Integer.class), rs.getString(5)) : null,
+                    movieId);
+            if (movie != null) {
+                record(movieId, movie, now, weight);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to record trending event for movie {}: {}", movieId, e.getMessage());
+        }
+    }
+
+    private void record(long movieId, MovieRow movie, long time, float weight) {
+        synchronized (lock) {
+            String key = MovieKeys.key(movie.tmdbId, movie.title, aliases);
+            Title title = titles.computeIfAbsent(key, k -> new Title(movie));
+            if (movieTitles.size() >= MAX_RESOLVED_MOVIES) {
+                movieTitles.clear();
+            }
+            movieTitles.put(movieId, title);
+            title.add(time, weight);
+        }
+    }
+
+    private Ranking rank(Window window, long now) {
+        List<TrendingMovieResponse> movies = new ArrayList<>();
+        synchronized (lock) {
+            Title[] candidates = titles.values().toArray(new Title[0]);
+            TopK top = new TopK(MAX_RESULTS);
+            for (int index = 0; index < candidates.length; index++) {
+                double score = candidates[index].score(window, now);
+                if (score > 0) {
+                    top.add(index, (float) score);
+                }
+            }
+            int[] ids = new int[top.size()];
+            float[] scores = new float[top.size()];
+            int count = top.drainDescending(ids, scores);
+            for (int index = 0; index < count; index++) {
+                MovieRow movie = candidates[ids[index]].movie;
+                movies.add(new TrendingMovieResponse(movie.tmdbId, movie.title, movie.genre,
+                        movie.releaseYear, movie.posterUrl, (double) scores[index]));
+            }
+        }
+        return new Ranking(movies, now);
+    }
+
+    private static class Title {
+        private final MovieRow movie;
+        // Twelve five-minute buckets for the hour window
+        private final DecayedWindow recent = new DecayedWindow(5 * MINUTE, 12);
+        // A week of hourly buckets for the day and week windows
+        private final DecayedWindow hourly = new DecayedWindow(HOUR, 7 * 24);
+
+        private Title(MovieRow movie) {
+            this.movie = movie;
+        }
+
+        private void add(long time, float weight) {
+            recent.add(time, weight);
+            hourly.add(time, weight);
+        }
+
+        private double score(Window window, long now) {
+            DecayedWindow buckets = window == Window.HOUR ? recent : hourly;
+            return buckets.score(now, window.spanMillis, window.halfLifeMillis);
+        }
+    }
+
+    private static class MovieRow {
+        private final Long tmdbId;
+        private final String title;
+        private final String genre;
+        private final Integer releaseYear;
+        private final String posterUrl;
+
+        private MovieRow(Long tmdbId, String title, String genre, Integer releaseYear, String posterUrl) {
+            this.tmdbId = tmdbId;
+            this.title = title;
+            this.genre = genre;
+            this.releaseYear = releaseYear;
+            this.posterUrl = posterUrl;
+        }
+    }
+
+    private static class Ranking {
+        private final List<TrendingMovieResponse> movies;
+        private final long computedAt;
+
+        private Ranking(List<TrendingMovieResponse> movies, long computedAt) {
+            this.movies = movies;
+            this.computedAt = computedAt;
+        }
+    }
+}
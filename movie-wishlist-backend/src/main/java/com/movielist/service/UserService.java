@@ -3,7 +3,10 @@ package com.movielist.service;
 import com.movielist.entity.Badge;
 import com.movielist.entity.Follow;
 import com.movielist.entity.User;
+import com.movielist.event.UserFollowedEvent;
 import com.movielist.exception.ResourceNotFoundException;
+import com.movielist.payload.FollowSuggestionResponse;
+import com.movielist.payload.SimilarUserResponse;
 import com.movielist.payload.UserProfileRequest;
 import com.movielist.payload.UserProfileResponse;
 import com.movielist.repository.BadgeRepository;
@@ -11,6 +14,7 @@ import com.movielist.repository.FollowRepository;
 import com.movielist.repository.MovieRepository;
 import com.movielist.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -35,6 +39,18 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private FollowSuggestionService followSuggestionService;
+
+    @Autowired
+    private SimilarUserIndex similarUserIndex;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public UserProfileResponse getUserProfile(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
@@ -86,6 +102,9 @@ public class UserService {
         follow.setFollowingId(following.getId());
         
         followRepository.save(follow);
+        followSuggestionService.evict(follower.getId());
+        feedService.onFollow(follower.getId(), following.getId());
+        eventPublisher.publishEvent(new UserFollowedEvent(follower.getId(), follower.getUsername(), following.getId()));
     }
 
     public void unfollowUser(String followerUsername, String followingUsername) {
@@ -99,6 +118,8 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("You are not following this user"));
         
         followRepository.delete(follow);
+        followSuggestionService.evict(follower.getId());
+        feedService.onUnfollow(follower.getId(), following.getId());
     }
 
     public List<UserProfileResponse> getFollowers(String username) {
@@ -125,6 +146,20 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    public List<FollowSuggestionResponse> getFollowSuggestions(String username, int limit) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        return followSuggestionService.getSuggestions(user.getId(), limit);
+    }
+
+    public List<SimilarUserResponse> getSimilarUsers(String username, int limit) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        return similarUserIndex.findSimilar(user.getId(), limit);
+    }
+
     public List<UserProfileResponse> getLeaderboard() {
         List<User> users = userRepository.findAll();
         
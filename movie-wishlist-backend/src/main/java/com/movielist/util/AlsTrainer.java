@@ -0,0 +1,217 @@
+package com.movielist.util;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Alternating least squares for explicit ratings. Ratings are centred on their global mean and
+ * approximated by the dot product of a user and an item factor vector. Each half-iteration fixes
+ * one side and solves a small regularized least-squares system per user (or item) with a
+ * Cholesky decomposition; those solves are independent and run in parallel on the given pool.
+ * Factor vectors are stored back to back in flat float arrays.
+ */
+public class AlsTrainer {
+
+    private final int factors;
+    private final int iterations;
+    private final float lambda;
+    private final ForkJoinPool pool;
+
+    public AlsTrainer(int factors, int iterations, float lambda, ForkJoinPool pool) {
+        this.factors = factors;
+        this.iterations = iterations;
+        this.lambda = lambda;
+        this.pool = pool;
+    }
+
+    /**
+     * Trains on ratings given as parallel arrays of user index, item index and value, with
+     * indexes in [0, users) and [0, items).
+     */
+    public Model train(int users, int items, int[] ratingUsers, int[] ratingItems, float[] ratings, long seed)
+            throws InterruptedException, ExecutionException {
+        int count = ratings.length;
+        double sum = 0;
+        for (float rating : ratings) {
+            sum += rating;
+        }
+        float mean = count > 0 ? (float) (sum / count) : 0f;
+
+        Rows byUser = Rows.of(users, ratingUsers, ratingItems, ratings, mean);
+        Rows byItem = Rows.of(items, ratingItems, ratingUsers, ratings, mean);
+
+        float[] userFactors = new float[users * factors];
+        float[] itemFactors = new float[items * factors];
+        Random random = new Random(seed);
+        float scale = (float) (0.1 / Math.sqrt(factors));
+        for (int index = 0; index < itemFactors.length; index++) {
+            itemFactors[index] = (float) random.nextGaussian() * scale;
+        }
+
+        ThreadLocal<Solver> solvers = ThreadLocal.withInitial(() -> new Solver(factors));
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            pool.submit(() -> IntStream.range(0, users).parallel()
+                    .forEach(user -> solvers.get().solve(byUser, user, itemFactors, userFactors))).get();
+            pool.submit(() -> IntStream.range(0, items).parallel()
+                    .forEach(item -> solvers.get().solve(byItem, item, userFactors, itemFactors))).get();
+        }
+        return new Model(factors, mean, userFactors, itemFactors);
+    }
+
+    public static class Model {
+        private final int factors;
+        private final float mean;
+        private final float[] userFactors;
+        private final float[] itemFactors;
+
+        public Model(int factors, float mean, float[] userFactors, float[] itemFactors) {
+            this.factors = factors;
+            this.mean = mean;
+            this.userFactors = userFactors;
+            this.itemFactors = itemFactors;
+        }
+
+        public float predict(int user, int item) {
+            float score = mean;
+            int userOffset = user * factors;
+            int itemOffset = item * factors;
+            for (int factor = 0; factor < factors; factor++) {
+                score += userFactors[userOffset + factor] * itemFactors[itemOffset + factor];
+            }
+            return score;
+        }
+
+        public int getFactors() {
+            return factors;
+        }
+
+        public float getMean() {
+            return mean;
+        }
+
+        public float[] getUserFactors() {
+            return userFactors;
+        }
+
+        public float[] getItemFactors() {
+            return itemFactors;
+        }
+    }
+
+    // Ratings grouped by one side in compressed sparse row form, already centred on the mean
+    private static class Rows {
+        private final int[] offsets;
+        private final int[] others;
+        private final float[] values;
+
+        private Rows(int[] offsets, int[] others, float[] values) {
+            this.offsets = offsets;
+            this.others = others;
+            this.values = values;
+        }
+
+        private static Rows of(int rows, int[] rowIndexes, int[] otherIndexes, float[] ratings, float mean) {
+            int[] offsets = new int[rows + 1];
+            for (int row : rowIndexes) {
+                offsets[row + 1]++;
+            }
+            for (int row = 0; row < rows; row++) {
+                offsets[row + 1] += offsets[row];
+            }
+            int[] fill = new int[rows];
+            System.arraycopy(offsets, 0, fill, 0, rows);
+            int[] others = new int[ratings.length];
+            float[] values = new float[ratings.length];
+            for (int index = 0; index < ratings.length; index++) {
+                int slot = fill[rowIndexes[index]]++;
+                others[slot] = otherIndexes[index];
+                values[slot] = ratings[index] - mean;
+            }
+            return new Rows(offsets, others, values);
+        }
+    }
+
+    // Per-thread normal equations, solved in double precision
+    private class Solver {
+        private final double[] matrix;
+        private final double[] vector;
+
+        private Solver(int factors) {
+            this.matrix = new double[factors * factors];
+            this.vector = new double[factors];
+        }
+
+        // Solves (F^T F + lambda * n * I) x = F^T r for one row, where F are the fixed side's factors
+        private void solve(Rows rows, int row, float[] fixed, float[] target) {
+            int from = rows.offsets[row];
+            int to = rows.offsets[row + 1];
+            int offset = row * factors;
+            if (from == to) {
+                for (int factor = 0; factor < factors; factor++) {
+                    target[offset + factor] = 0f;
+                }
+                return;
+            }
+
+            Arrays.fill(matrix, 0);
+            Arrays.fill(vector, 0);
+            for (int index = from; index < to; index++) {
+                int other = rows.others[index] * factors;
+                double value = rows.values[index];
+                for (int i = 0; i < factors; i++) {
+                    double fi = fixed[other + i];
+                    vector[i] += value * fi;
+                    for (int j = 0; j <= i; j++) {
+                        matrix[i * factors + j] += fi * fixed[other + j];
+                    }
+                }
+            }
+            double regularization = lambda * (to - from);
+            for (int i = 0; i < factors; i++) {
+                matrix[i * factors + i] += regularization;
+            }
+
+            choleskySolve();
+            for (int factor = 0; factor < factors; factor++) {
+                target[offset + factor] = (float) vector[factor];
+            }
+        }
+
+        // Factors the lower triangle of matrix into L in place, then solves L L^T x = vector into vector
+        private void choleskySolve() {
+            int n = factors;
+            for (int j = 0; j < n; j++) {
+                double diagonal = matrix[j * n + j];
+                for (int k = 0; k < j; k++) {
+                    diagonal -= matrix[j * n + k] * matrix[j * n + k];
+                }
+                double root = Math.sqrt(Math.max(diagonal, 1e-12));
+                matrix[j * n + j] = root;
+                for (int i = j + 1; i < n; i++) {
+                    double value = matrix[i * n + j];
+                    for (int k = 0; k < j; k++) {
+                        value -= matrix[i * n + k] * matrix[j * n + k];
+                    }
+                    matrix[i * n + j] = value / root;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                double value = vector[i];
+                for (int k = 0; k < i; k++) {
+                    value -= matrix[i * n + k] * vector[k];
+                }
+                vector[i] = value / matrix[i * n + i];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                double value = vector[i];
+                for (int k = i + 1; k < n; k++) {
+                    value -= matrix[k * n + i] * vector[k];
+                }
+                vector[i] = value / matrix[i * n + i];
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.movielist.util;
+
+import java.util.Arrays;
+
+/**
+ * Event counts over a sliding window, kept in a ring of fixed-width time buckets. Moving forward
+ * in time clears the buckets that fall out of the ring, so the memory stays constant however
+ * many events are added. Scores weight each bucket by exponential decay on its age. Not thread
+ * safe; callers synchronize.
+ */
+public class DecayedWindow {
+
+    private final long bucketMillis;
+    private final float[] buckets;
+    private long newest = Long.MIN_VALUE;
+
+    public DecayedWindow(long bucketMillis, int bucketCount) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new float[bucketCount];
+    }
+
+    // Events older than the ring are dropped
+    public void add(long timeMillis, float amount) {
+        long bucket = timeMillis / bucketMillis;
+        advance(bucket);
+        if (bucket > newest - buckets.length) {
+            buckets[slot(bucket)] += amount;
+        }
+    }
+
+    /**
+     * Sum of the buckets less than spanMillis old at the given time, each multiplied by
+     * 0.5^(age / halfLifeMillis) where age is measured to the bucket's midpoint.
+     */
+    public double score(long nowMillis, long spanMillis, double halfLifeMillis) {
+        if (newest == Long.MIN_VALUE) {
+            return 0;
+        }
+        long nowBucket = nowMillis / bucketMillis;
+        long from = Math.max(nowBucket - spanMillis / bucketMillis + 1, newest - buckets.length + 1);
+        long to = Math.min(nowBucket, newest);
+        double score = 0;
+        for (long bucket = from; bucket <= to; bucket++) {
+            float count = buckets[slot(bucket)];
+            if (count != 0) {
+                long age = Math.max(0, nowMillis - (bucket * bucketMillis + bucketMillis / 2));
+                score += count * Math.pow(0.5, age / halfLifeMillis);
+            }
+        }
+        return score;
+    }
+
+    // True once every bucket has left the ring
+    public boolean isExpired(long nowMillis) {
+        return newest == Long.MIN_VALUE || nowMillis / bucketMillis - newest >= buckets.length;
+    }
+
+    private void advance(long bucket) {
+        if (newest == Long.MIN_VALUE) {
+            newest = bucket;
+            return;
+        }
+        if (bucket <= newest) {
+            return;
+        }
+        if (bucket - newest >= buckets.length) {
+            Arrays.fill(buckets, 0f);
+        } else {
+            for (long cleared = newest + 1; cleared <= bucket; cleared++) {
+                buckets[slot(cleared)] = 0f;
+            }
+        }
+        newest = bucket;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) buckets.length);
+    }
+}
@@ -0,0 +1,380 @@
+package com.movielist.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical navigable small world graph for approximate nearest-neighbour search over unit
+ * length float vectors, using cosine similarity. Nodes are numbered in insertion order. Each node
+ * sits on a random number of layers; a search descends greedily through the sparse upper layers
+ * and then runs a best-first search of width ef on the bottom layer, so it visits a small part
+ * of the graph instead of every vector. Inserts take a write lock, searches a read lock.
+ */
+public class HnswIndex {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final int dimensions;
+    private final int maxLinks;
+    private final int maxLinksBottom;
+    private final int efConstruction;
+    private final double levelFactor;
+    private final Random random;
+
+    private float[] vectors;
+    private int[][][] links;
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Per-thread visit marks; bumping the stamp clears them without touching the array
+    private final ThreadLocal<int[][]> visited = ThreadLocal.withInitial(() -> new int[][]{new int[0], {0}});
+
+    public HnswIndex(int dimensions, int maxLinks, int efConstruction, long seed) {
+        this.dimensions = dimensions;
+        this.maxLinks = maxLinks;
+        this.maxLinksBottom = maxLinks * 2;
+        this.efConstruction = efConstruction;
+        this.levelFactor = 1 / Math.log(maxLinks);
+        this.random = new Random(seed);
+        this.vectors = new float[dimensions * 64];
+        this.links = new int[64][][];
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Copy of a stored vector
+    public float[] vector(int node) {
+        lock.readLock().lock();
+        try {
+            return Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a unit-length vector and returns its node number.
+     */
+    public int add(float[] vector) {
+        lock.writeLock().lock();
+        try {
+            int node = size;
+            ensureCapacity(node + 1);
+            System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelFactor);
+            links[node] = new int[level + 1][];
+            for (int layer = 0; layer <= level; layer++) {
+                links[node][layer] = new int[1 + (layer == 0 ? maxLinksBottom : maxLinks)];
+            }
+            size++;
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return node;
+            }
+
+            int nearest = entryPoint;
+            for (int layer = maxLevel; layer > level; layer--) {
+                nearest = greedy(vectors, node * dimensions, nearest, layer);
+            }
+            for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+                PriorityQueue<Long> found = searchLayer(vectors, node * dimensions, nearest, efConstruction, layer);
+                int limit = layer == 0 ? maxLinksBottom : maxLinks;
+                long[] candidates = closestFirst(found);
+                int[] selected = selectNeighbours(candidates, limit, node);
+                for (int neighbour : selected) {
+                    link(node, neighbour, layer);
+                    link(neighbour, node, layer);
+                }
+                nearest = node(candidates[0]);
+            }
+            if (level > maxLevel) {
+                entryPoint = node;
+                maxLevel = level;
+            }
+            return node;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to k nodes closest to the query, closest first, with their cosine similarities
+     * written to the similarities array.
+     */
+    public int search(float[] query, int k, int ef, int[] nodes, float[] similarities) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return 0;
+            }
+            int nearest = entryPoint;
+            for (int layer = maxLevel; layer > 0; layer--) {
+                nearest = greedy(query, 0, nearest, layer);
+            }
+            long[] found = closestFirst(searchLayer(query, 0, nearest, Math.max(ef, k), 0));
+            int count = Math.min(k, found.length);
+            for (int index = 0; index < count; index++) {
+                nodes[index] = node(found[index]);
+                similarities[index] = 1 - distanceOf(found[index]);
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int serializedSize() {
+        lock.readLock().lock();
+        try {
+            long bytes = 7L * Integer.BYTES + (long) size * dimensions * Float.BYTES;
+            for (int node = 0; node < size; node++) {
+                bytes += Integer.BYTES;
+                for (int[] layer : links[node]) {
+                    bytes += (long) layer.length * Integer.BYTES;
+                }
+            }
+            return Math.toIntExact(bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        lock.readLock().lock();
+        try {
+            buffer.putInt(FORMAT_VERSION).putInt(dimensions).putInt(maxLinks).putInt(efConstruction)
+                    .putInt(size).putInt(entryPoint).putInt(maxLevel);
+            buffer.asFloatBuffer().put(vectors, 0, size * dimensions);
+            buffer.position(buffer.position() + size * dimensions * Float.BYTES);
+            for (int node = 0; node < size; node++) {
+                buffer.putInt(links[node].length);
+                for (int[] layer : links[node]) {
+                    buffer.asIntBuffer().put(layer);
+                    buffer.position(buffer.position() + layer.length * Integer.BYTES);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static HnswIndex readFrom(ByteBuffer buffer, long seed) {
+        if (buffer.getInt() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported index format");
+        }
+        HnswIndex index = new HnswIndex(buffer.getInt(), buffer.getInt(), buffer.getInt(), seed);
+        int size = buffer.getInt();
+        index.entryPoint = buffer.getInt();
+        index.maxLevel = buffer.getInt();
+        index.ensureCapacity(size);
+        buffer.asFloatBuffer().get(index.vectors, 0, size * index.dimensions);
+        buffer.position(buffer.position() + size * index.dimensions * Float.BYTES);
+        for (int node = 0; node < size; node++) {
+            int layers = buffer.getInt();
+            index.links[node] = new int[layers][];
+            for (int layer = 0; layer < layers; layer++) {
+                int[] slots = new int[1 + (layer == 0 ? index.maxLinksBottom : index.maxLinks)];
+                buffer.asIntBuffer().get(slots);
+                buffer.position(buffer.position() + slots.length * Integer.BYTES);
+                index.links[node][layer] = slots;
+            }
+        }
+        index.size = size;
+        return index;
+    }
+
+    // Follows the single best edge on one layer until no neighbour is closer
+    private int greedy(float[] query, int offset, int start, int layer) {
+        int current = start;
+        float best = distance(query, offset, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbours = links[current][layer];
+            for (int index = 1; index <= neighbours[0]; index++) {
+                float candidate = distance(query, offset, neighbours[index]);
+                if (candidate < best) {
+                    best = candidate;
+                    current = neighbours[index];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Best-first search; returns the ef closest nodes found as a max-heap on distance
+    private PriorityQueue<Long> searchLayer(float[] query, int offset, int start, int ef, int layer) {
+        int[][] marks = visited.get();
+        if (marks[0].length < size) {
+            marks[0] = new int[Math.max(size, marks[0].length * 2)];
+            marks[1][0] = 0;
+        }
+        int stamp = ++marks[1][0];
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(marks[0], 0);
+            marks[1][0] = stamp = 1;
+        }
+        int[] seen = marks[0];
+
+        PriorityQueue<Long> candidates = new PriorityQueue<>();
+        PriorityQueue<Long> results = new PriorityQueue<>((a, b) -> Long.compare(b, a));
+        long first = encode(distance(query, offset, start), start);
+        candidates.add(first);
+        results.add(first);
+        seen[start] = stamp;
+
+        while (!candidates.isEmpty()) {
+            long closest = candidates.poll();
+            if (distanceOf(closest) > distanceOf(results.peek()) && results.size() >= ef) {
+                break;
+            }
+            int[] neighbours = links[node(closest)][layer];
+            for (int index = 1; index <= neighbours[0]; index++) {
+                int neighbour = neighbours[index];
+                if (seen[neighbour] == stamp) {
+                    continue;
+                }
+                seen[neighbour] = stamp;
+                float distance = distance(query, offset, neighbour);
+                if (results.size() < ef || distance < distanceOf(results.peek())) {
+                    long entry = encode(distance, neighbour);
+                    candidates.add(entry);
+                    results.add(entry);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    // Keeps a candidate only if it is closer to the new node than to every neighbour kept so far
+    private int[] selectNeighbours(long[] candidates, int limit, int node) {
+        int[] selected = new int[Math.min(limit, candidates.length)];
+        int count = 0;
+        for (long candidate : candidates) {
+            if (count == selected.length) {
+                break;
+            }
+            int id = node(candidate);
+            if (id == node) {
+                continue;
+            }
+            boolean diverse = true;
+            for (int index = 0; index < count && diverse; index++) {
+                diverse = distance(vectors, selected[index] * dimensions, id) >= distanceOf(candidate);
+            }
+            if (diverse) {
+                selected[count++] = id;
+            }
+        }
+        // Top up with the closest remaining candidates so sparse regions stay connected
+        for (long candidate : candidates) {
+            if (count == selected.length) {
+                break;
+            }
+            int id = node(candidate);
+            boolean present = id == node;
+            for (int index = 0; index < count && !present; index++) {
+                present = selected[index] == id;
+            }
+            if (!present) {
+                selected[count++] = id;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    // Adds an edge, dropping the farthest neighbour when the node is full
+    private void link(int from, int to, int layer) {
+        int[] neighbours = links[from][layer];
+        int count = neighbours[0];
+        for (int index = 1; index <= count; index++) {
+            if (neighbours[index] == to) {
+                return;
+            }
+        }
+        if (count < neighbours.length - 1) {
+            neighbours[count + 1] = to;
+            neighbours[0] = count + 1;
+            return;
+        }
+        int offset = from * dimensions;
+        int farthest = 0;
+        float farthestDistance = distance(vectors, offset, to);
+        for (int index = 1; index <= count; index++) {
+            float distance = distance(vectors, offset, neighbours[index]);
+            if (distance > farthestDistance) {
+                farthest = index;
+                farthestDistance = distance;
+            }
+        }
+        if (farthest > 0) {
+            neighbours[farthest] = to;
+        }
+    }
+
+    private float distance(float[] query, int offset, int node) {
+        int base = node * dimensions;
+        float dot = 0f;
+        for (int index = 0; index < dimensions; index++) {
+            dot += query[offset + index] * vectors[base + index];
+        }
+        // 1 - cosine lies in [0, 2], so its float bits sort the same way as the values
+        return Math.max(0f, 1f - dot);
+    }
+
+    private long[] closestFirst(PriorityQueue<Long> results) {
+        long[] sorted = new long[results.size()];
+        int index = 0;
+        for (Long entry : results) {
+            sorted[index++] = entry;
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static long encode(float distance, int node) {
+        return ((long) Float.floatToIntBits(distance) << 32) | node;
+    }
+
+    private static float distanceOf(long entry) {
+        return Float.intBitsToFloat((int) (entry >>> 32));
+    }
+
+    private static int node(long entry) {
+        return (int) entry;
+    }
+
+    private void ensureCapacity(int nodes) {
+        if (links.length < nodes) {
+            int capacity = Math.max(nodes, links.length * 2);
+            links = Arrays.copyOf(links, capacity);
+            vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        } else if (vectors.length < nodes * dimensions) {
+            vectors = Arrays.copyOf(vectors, nodes * dimensions);
+        }
+    }
+}
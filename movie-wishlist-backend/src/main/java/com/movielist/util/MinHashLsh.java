@@ -0,0 +1,223 @@
+package com.movielist.util;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * MinHash signatures of sets identified by long ids, with locality-sensitive hashing for
+ * candidate lookup. Each set keeps bands * rowsPerBand minimum hash values in a flat int array;
+ * the fraction of equal values between two signatures estimates their Jaccard similarity. Each
+ * band of a signature is hashed to a bucket, so a query only scores the sets sharing at least
+ * one bucket instead of every set. Adding an element only lowers signature values, so sets grow
+ * incrementally; a band that changes is bucketed again and its old bucket entry is left behind,
+ * which costs a wasted candidate until the structure is rebuilt. Bulk loads should use addAll,
+ * which buckets each band once with its final value. Removals need a rebuild.
+ */
+public class MinHashLsh {
+
+    private final int bands;
+    private final int rowsPerBand;
+    private final int hashes;
+    private final long[] multipliers;
+    private final long[] increments;
+
+    private final LongIntHashMap rowsById = new LongIntHashMap();
+    private long[] ids = new long[64];
+    private int[] signatures;
+    private int size;
+
+    // Bucket chains: heads maps a bucket key to its newest entry, entries link to older ones
+    private final LongIntHashMap bucketHeads = new LongIntHashMap();
+    private int[] entryRows = new int[256];
+    private int[] entryNext = new int[256];
+    private int entries;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public MinHashLsh(int bands, int rowsPerBand, long seed) {
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        this.hashes = bands * rowsPerBand;
+        this.multipliers = new long[hashes];
+        this.increments = new long[hashes];
+        Random random = new Random(seed);
+        for (int index = 0; index < hashes; index++) {
+            multipliers[index] = random.nextLong() | 1L;
+            increments[index] = random.nextLong();
+        }
+        this.signatures = new int[ids.length * hashes];
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an element, given as a well-mixed 64-bit hash, to the set with the given id and
+     * returns whether the set's signature changed.
+     */
+    public boolean add(long id, long element) {
+        lock.writeLock().lock();
+        try {
+            int row = rowFor(id);
+            int offset = row * hashes;
+            boolean signatureChanged = false;
+            for (int band = 0; band < bands; band++) {
+                boolean changed = false;
+                for (int index = band * rowsPerBand; index < (band + 1) * rowsPerBand; index++) {
+                    int value = hash(index, element);
+                    if (value < signatures[offset + index]) {
+                        signatures[offset + index] = value;
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    link(bandKey(signatures, offset, band), row);
+                    signatureChanged = true;
+                }
+            }
+            return signatureChanged;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds several elements to the set with the given id and returns whether the set's signature
+     * changed. The whole signature is computed first, so each changed band gets one bucket entry.
+     */
+    public boolean addAll(long id, long[] elements) {
+        if (elements.length == 0) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int row = rowFor(id);
+            int offset = row * hashes;
+            int[] previous = Arrays.copyOfRange(signatures, offset, offset + hashes);
+            for (long element : elements) {
+                for (int index = 0; index < hashes; index++) {
+                    int value = hash(index, element);
+                    if (value < signatures[offset + index]) {
+                        signatures[offset + index] = value;
+                    }
+                }
+            }
+
+            boolean signatureChanged = false;
+            for (int band = 0; band < bands; band++) {
+                int from = band * rowsPerBand;
+                int to = from + rowsPerBand;
+                if (!Arrays.equals(previous, from, to, signatures, offset + from, offset + to)) {
+                    link(bandKey(signatures, offset, band), row);
+                    signatureChanged = true;
+                }
+            }
+            return signatureChanged;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds up to limit other sets most similar to the set with the given id, most similar first.
+     * At most maxBucketScan entries are read from each bucket, which bounds the work for very
+     * common signatures. Returns the number of results written.
+     */
+    public int query(long id, int limit, int maxBucketScan, long[] resultIds, float[] similarities) {
+        lock.readLock().lock();
+        try {
+            int row = rowsById.get(id, -1);
+            if (row < 0 || limit <= 0) {
+                return 0;
+            }
+            int offset = row * hashes;
+            LongIntHashMap seen = new LongIntHashMap();
+            TopK top = new TopK(limit);
+            for (int band = 0; band < bands; band++) {
+                int entry = bucketHeads.get(bandKey(signatures, offset, band), -1);
+                for (int scanned = 0; entry >= 0 && scanned < maxBucketScan; scanned++) {
+                    int candidate = entryRows[entry];
+                    entry = entryNext[entry];
+                    if (candidate == row || seen.containsKey(candidate)) {
+                        continue;
+                    }
+                    seen.put(candidate, 1);
+                    top.add(candidate, similarity(offset, candidate * hashes));
+                }
+            }
+
+            int[] rows = new int[top.size()];
+            int count = top.drainDescending(rows, similarities);
+            for (int index = 0; index < count; index++) {
+                resultIds[index] = ids[rows[index]];
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Fraction of signature values two rows share, an estimate of their Jaccard similarity
+    private float similarity(int offset, int otherOffset) {
+        int equal = 0;
+        for (int index = 0; index < hashes; index++) {
+            if (signatures[offset + index] == signatures[otherOffset + index]) {
+                equal++;
+            }
+        }
+        return (float) equal / hashes;
+    }
+
+    private int hash(int index, long element) {
+        return (int) ((multipliers[index] * element + increments[index]) >>> 32);
+    }
+
+    private long bandKey(int[] signature, int offset, int band) {
+        long key = band * 0x9E3779B97F4A7C15L;
+        for (int index = band * rowsPerBand; index < (band + 1) * rowsPerBand; index++) {
+            key = (key ^ signature[offset + index]) * 0xBF58476D1CE4E5B9L;
+            key ^= key >>> 31;
+        }
+        // Long.MIN_VALUE is the hash map's empty marker
+        return key == Long.MIN_VALUE ? 0 : key;
+    }
+
+    // Row of the set with the given id, created with an empty signature on first use
+    private int rowFor(long id) {
+        int row = rowsById.get(id, -1);
+        if (row < 0) {
+            row = size++;
+            ensureCapacity(size);
+            ids[row] = id;
+            rowsById.put(id, row);
+            Arrays.fill(signatures, row * hashes, (row + 1) * hashes, Integer.MAX_VALUE);
+        }
+        return row;
+    }
+
+    private void link(long bucket, int row) {
+        if (entries == entryRows.length) {
+            entryRows = Arrays.copyOf(entryRows, entries * 2);
+            entryNext = Arrays.copyOf(entryNext, entries * 2);
+        }
+        entryRows[entries] = row;
+        entryNext[entries] = bucketHeads.get(bucket, -1);
+        bucketHeads.put(bucket, entries++);
+    }
+
+    private void ensureCapacity(int rows) {
+        if (ids.length < rows) {
+            int capacity = Math.max(rows, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            signatures = Arrays.copyOf(signatures, capacity * hashes);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.movielist.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Generates a synthetic rating matrix with known low-rank structure for offline evaluation of
+ * the matrix factorization trainer. Ratings follow the 1-10 scale used by the library, items are
+ * drawn with a popularity skew, and Gaussian noise is added before rounding.
+ */
+public class SyntheticRatings {
+
+    private final int users;
+    private final int items;
+    private final int[] ratingUsers;
+    private final int[] ratingItems;
+    private final float[] ratings;
+
+    private SyntheticRatings(int users, int items, int[] ratingUsers, int[] ratingItems, float[] ratings) {
+        this.users = users;
+        this.items = items;
+        this.ratingUsers = ratingUsers;
+        this.ratingItems = ratingItems;
+        this.ratings = ratings;
+    }
+
+    public static SyntheticRatings generate(int users, int items, int ratingsPerUser, int rank, double noise, long seed) {
+        Random random = new Random(seed);
+        double scale = 1.0 / Math.sqrt(rank);
+        double[] userTaste = gaussian(users * rank, scale, random);
+        double[] itemProfile = gaussian(items * rank, scale, random);
+
+        int perUser = Math.min(ratingsPerUser, items);
+        int[] ratingUsers = new int[users * perUser];
+        int[] ratingItems = new int[users * perUser];
+        float[] ratings = new float[users * perUser];
+        int count = 0;
+        BitSet rated = new BitSet(items);
+        for (int user = 0; user < users; user++) {
+            rated.clear();
+            for (int made = 0; made < perUser; ) {
+                // Squaring a uniform draw favours low item indexes, like a popularity long tail
+                double draw = random.nextDouble();
+                int item = (int) (items * draw * draw);
+                if (rated.get(item)) {
+                    continue;
+                }
+                rated.set(item);
+                double dot = 0;
+                for (int factor = 0; factor < rank; factor++) {
+                    dot += userTaste[user * rank + factor] * itemProfile[item * rank + factor];
+                }
+                double value = 5.5 + 2.5 * dot * Math.sqrt(rank) + noise * random.nextGaussian();
+                ratingUsers[count] = user;
+                ratingItems[count] = item;
+                ratings[count++] = (float) Math.max(1, Math.min(10, Math.round(value)));
+                made++;
+            }
+        }
+        return new SyntheticRatings(users, items, Arrays.copyOf(ratingUsers, count),
+                Arrays.copyOf(ratingItems, count), Arrays.copyOf(ratings, count));
+    }
+
+    private static double[] gaussian(int size, double scale, Random random) {
+        double[] values = new double[size];
+        for (int index = 0; index < size; index++) {
+            values[index] = random.nextGaussian() * scale;
+        }
+        return values;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getItems() {
+        return items;
+    }
+
+    public int[] getRatingUsers() {
+        return ratingUsers;
+    }
+
+    public int[] getRatingItems() {
+        return ratingItems;
+    }
+
+    public float[] getRatings() {
+        return ratings;
+    }
+}
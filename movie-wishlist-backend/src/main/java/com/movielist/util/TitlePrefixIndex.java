@@ -0,0 +1,162 @@
+package com.movielist.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable prefix index over weighted titles.
+ *
+ * Keys are kept in one sorted array, so the titles sharing a prefix form a contiguous range found
+ * by two binary searches. A segment tree over the weights returns the heaviest entries of that
+ * range in O(k log n) without scanning it, which keeps one-letter prefixes as cheap as long ones.
+ */
+public class TitlePrefixIndex {
+
+    private final String[] keys;
+    private final String[] titles;
+    private final int[] weights;
+    private final int[] tree;
+    private final int leaves;
+
+    private TitlePrefixIndex(String[] keys, String[] titles, int[] weights) {
+        this.keys = keys;
+        this.titles = titles;
+        this.weights = weights;
+
+        int size = 1;
+        while (size < Math.max(1, keys.length)) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new int[size * 2];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < keys.length; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = heavier(tree[node * 2], tree[node * 2 + 1]);
+        }
+    }
+
+    public static TitlePrefixIndex empty() {
+        return new TitlePrefixIndex(new String[0], new String[0], new int[0]);
+    }
+
+    /**
+     * Builds an index from parallel arrays; keys must already be normalized and unique.
+     */
+    public static TitlePrefixIndex build(String[] keys, String[] titles, int[] weights) {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> keys[i]));
+
+        String[] sortedKeys = new String[keys.length];
+        String[] sortedTitles = new String[keys.length];
+        int[] sortedWeights = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedTitles[i] = titles[order[i]];
+            sortedWeights[i] = weights[order[i]];
+        }
+        return new TitlePrefixIndex(sortedKeys, sortedTitles, sortedWeights);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public List<Entry> topK(String prefix, int k) {
+        if (keys.length == 0 || k <= 0) {
+            return Collections.emptyList();
+        }
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + Character.MAX_VALUE);
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+
+        // Each queued range is represented by its heaviest entry; taking it splits the range in two
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> Integer.compare(weights[b[2]], weights[a[2]]));
+        ranges.add(new int[]{from, to, rangeMax(from, to)});
+        List<Entry> results = new ArrayList<>(k);
+        while (!ranges.isEmpty() && results.size() < k) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            results.add(new Entry(keys[best], titles[best], weights[best]));
+            if (range[0] < best) {
+                ranges.add(new int[]{range[0], best, rangeMax(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[]{best + 1, range[1], rangeMax(best + 1, range[1])});
+            }
+        }
+        return results;
+    }
+
+    private int rangeMax(int from, int to) {
+        int best = -1;
+        for (int lo = from + leaves, hi = to + leaves; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                best = heavier(best, tree[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                best = heavier(best, tree[--hi]);
+            }
+        }
+        return best;
+    }
+
+    private int heavier(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return weights[b] > weights[a] ? b : a;
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public static class Entry {
+        private final String key;
+        private final String title;
+        private final int weight;
+
+        public Entry(String key, String title, int weight) {
+            this.key = key;
+            this.title = title;
+            this.weight = weight;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+}
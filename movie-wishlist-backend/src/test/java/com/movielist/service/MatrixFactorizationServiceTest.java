@@ -0,0 +1,45 @@
+package com.movielist.service;
+
+import com.movielist.payload.AlsEvaluationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatrixFactorizationServiceTest {
+
+    private MatrixFactorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        // Configured iterations and lambda; 16 factors make evaluate() generate rank-8 ratings, which
+        // 40 ratings per user can recover. At rank 16 that density barely beats the mean.
+        service = new MatrixFactorizationService();
+        ReflectionTestUtils.setField(service, "factors", 16);
+        ReflectionTestUtils.setField(service, "iterations", 10);
+        ReflectionTestUtils.setField(service, "lambda", 0.05f);
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+    }
+
+    @Test
+    void holdoutRmseBeatsTheMeanBaseline() throws Exception {
+        AlsEvaluationResponse result = service.evaluate(5000, 2000, 40, 42);
+
+        assertEquals(5000, result.getUsers());
+        assertTrue(result.getTestRatings() > 0);
+        assertTrue(result.getRmse() < result.getBaselineRmse() * 0.8,
+                "RMSE " + result.getRmse() + " should beat the mean baseline " + result.getBaselineRmse());
+    }
+
+    @Test
+    void evaluationIsRepeatableForASeed() throws Exception {
+        AlsEvaluationResponse first = service.evaluate(500, 300, 20, 7);
+        AlsEvaluationResponse second = service.evaluate(500, 300, 20, 7);
+
+        assertEquals(first.getTestRatings(), second.getTestRatings());
+        assertEquals(first.getBaselineRmse(), second.getBaselineRmse());
+        assertEquals(first.getRmse(), second.getRmse(), 1e-6);
+    }
+}
@@ -0,0 +1,154 @@
+package com.movielist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movielist.payload.TmdbCatalogStatusResponse;
+import com.movielist.payload.TmdbMovieDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TmdbCatalogImporterTest {
+
+    @TempDir
+    Path importDir;
+
+    private final List<TmdbMovieDetails> upserted = new ArrayList<>();
+
+    private TmdbCatalogService catalogService;
+
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private TmdbCatalogImporter importer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Every row counts as written, as if the catalog started empty
+        catalogService = mock(TmdbCatalogService.class);
+        when(catalogService.upsert(any())).thenAnswer(invocation -> {
+            List<TmdbMovieDetails> batch = (List<TmdbMovieDetails>) invocation.getArgument(0);
+            upserted.addAll(batch);
+            int[] counts = new int[batch.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+
+        TmdbResponseParser parser = new TmdbResponseParser();
+        ReflectionTestUtils.setField(parser, "objectMapper", new ObjectMapper());
+        parser.init();
+
+        importer = new TmdbCatalogImporter();
+        ReflectionTestUtils.setField(importer, "importDir", importDir.toString());
+        ReflectionTestUtils.setField(importer, "defaultImportFile", "movie_ids.json");
+        ReflectionTestUtils.setField(importer, "batchSize", 2);
+        ReflectionTestUtils.setField(importer, "catalogService", catalogService);
+        ReflectionTestUtils.setField(importer, "responseParser", parser);
+        ReflectionTestUtils.setField(importer, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(importer, "namedParameterJdbcTemplate", namedParameterJdbcTemplate);
+    }
+
+    @Test
+    void fullDetailsSnapshotIsLoadedAndMarksTheCatalogComplete() throws IOException {
+        copyFixture("movies.jsonl");
+
+        TmdbCatalogStatusResponse status = runImport("movies.jsonl", true);
+
+        assertNull(status.getError());
+        assertEquals(3, status.getLinesRead());
+        assertEquals(3, status.getWritten());
+        assertEquals(0, status.getInvalid());
+        assertEquals(List.of(550L, 238L, 11L), ids());
+        TmdbMovieDetails fightClub = upserted.get(0);
+        assertEquals("Fight Club", fightClub.getTitle());
+        assertEquals(Integer.valueOf(139), fightClub.getRuntime());
+        assertEquals("Drama", fightClub.getGenres().get(0).getName());
+        verify(catalogService).markImportCompleted("movies.jsonl", 3);
+    }
+
+    @Test
+    void gzippedExportIsStreamedThroughTheDecompressor() throws IOException {
+        Path source = copyFixture("movies.jsonl");
+        try (InputStream input = Files.newInputStream(source);
+             OutputStream output = new GZIPOutputStream(Files.newOutputStream(importDir.resolve("movies.jsonl.gz")))) {
+            input.transferTo(output);
+        }
+
+        TmdbCatalogStatusResponse status = runImport("movies.jsonl.gz", false);
+
+        assertNull(status.getError());
+        assertEquals(List.of(550L, 238L, 11L), ids());
+        // An incremental file can't vouch for the rest of the catalog
+        verify(catalogService, never()).markImportCompleted(anyString(), anyLong());
+        verifyNoInteractions(namedParameterJdbcTemplate);
+    }
+
+    @Test
+    void idExportDoesNotMarkTheCatalogComplete() throws IOException {
+        copyFixture("movie_ids.json");
+
+        TmdbCatalogStatusResponse status = runImport("movie_ids.json", true);
+
+        assertNull(status.getError());
+        assertEquals(List.of(3924L, 6124L, 8773L), ids());
+        assertNull(upserted.get(0).getTitle());
+        assertEquals("Blondie", upserted.get(0).getOriginalTitle());
+        verify(catalogService, never()).markImportCompleted(anyString(), anyLong());
+    }
+
+    @Test
+    void truncatedSnapshotIsNeitherPrunedNorMarkedComplete() throws IOException {
+        copyFixture("truncated.jsonl");
+
+        TmdbCatalogStatusResponse status = runImport("truncated.jsonl", true);
+
+        assertEquals(2, status.getLinesRead());
+        assertEquals(1, status.getInvalid());
+        assertEquals(List.of(550L), ids());
+        verify(catalogService, never()).markImportCompleted(anyString(), anyLong());
+        verifyNoInteractions(namedParameterJdbcTemplate);
+    }
+
+    private TmdbCatalogStatusResponse runImport(String fileName, boolean fullSnapshot) {
+        // The private entry point runs the import on the calling thread
+        ReflectionTestUtils.invokeMethod(importer, "runImport", fileName, fullSnapshot);
+        return importer.getStatus();
+    }
+
+    private List<Long> ids() {
+        return upserted.stream().map(TmdbMovieDetails::getId).collect(Collectors.toList());
+    }
+
+    private Path copyFixture(String name) throws IOException {
+        Path target = importDir.resolve(name);
+        try (InputStream fixture = getClass().getResourceAsStream("/tmdb-catalog/" + name)) {
+            Files.copy(fixture, target);
+        }
+        return target;
+    }
+}
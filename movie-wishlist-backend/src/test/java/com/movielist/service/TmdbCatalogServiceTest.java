@@ -0,0 +1,90 @@
+package com.movielist.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class TmdbCatalogServiceTest {
+
+    private static final Duration DETAILS_TTL = Duration.ofDays(7);
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TmdbCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        catalogService = new TmdbCatalogService();
+        ReflectionTestUtils.setField(catalogService, "enabled", true);
+        ReflectionTestUtils.setField(catalogService, "detailsTtl", DETAILS_TTL);
+        ReflectionTestUtils.setField(catalogService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(catalogService, "size", new AtomicLong(3));
+    }
+
+    @Test
+    void searchStaysOnTheApiUntilAFullImportCompletes() {
+        assertFalse(catalogService.search("fight club", 1).isPresent());
+        verifyNoInteractions(jdbcTemplate);
+
+        catalogService.markImportCompleted("movies.jsonl", 3);
+        catalogService.search("fight club", 1);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), eq("fight:* & club:*"),
+                eq("fight club"), eq(20), eq(0));
+        assertTrue(sql.getValue().contains("has_details"));
+    }
+
+    @Test
+    void searchReturnsToTheApiOnceTheLastImportIsOlderThanTheDetailsTtl() {
+        ReflectionTestUtils.setField(catalogService, "lastCompletedImport",
+                Instant.now().minus(DETAILS_TTL).minusSeconds(60));
+
+        assertFalse(catalogService.search("fight club", 1).isPresent());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void localDetailsExpireAfterTheDetailsTtlWithoutAFreshImport() {
+        catalogService.findDetails(550L);
+
+        ArgumentCaptor<Timestamp> cutoff = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(550L), cutoff.capture());
+        Instant expected = Instant.now().minus(DETAILS_TTL);
+        assertTrue(Duration.between(cutoff.getValue().toInstant(), expected).abs().getSeconds() < 5);
+    }
+
+    @Test
+    void freshImportVouchesForEveryRowItKept() {
+        catalogService.markImportCompleted("movies.jsonl", 3);
+        catalogService.findDetails(550L);
+
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(550L), eq(Timestamp.from(Instant.EPOCH)));
+    }
+
+    @Test
+    void prefixQueryMatchesPartiallyTypedWords() {
+        assertEquals("star:* & wa:*", TmdbCatalogService.toPrefixQuery("Star Wa"));
+        assertEquals("l:* & amour:*", TmdbCatalogService.toPrefixQuery("L'amour!"));
+        assertEquals("", TmdbCatalogService.toPrefixQuery("  --  "));
+    }
+}
@@ -0,0 +1,122 @@
+package com.movielist.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movielist.payload.TmdbMovieDetails;
+import com.movielist.payload.TmdbPageResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming TmdbResponseParser with the Map<String, Object> databind path it
+ * replaced, on a 20-result list page and a details response shaped like TMDB's. Run main, or
+ * org.openjdk.jmh.Main with the test classpath, after mvn test-compile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TmdbResponseParserBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private ObjectMapper objectMapper;
+    private TmdbResponseParser parser;
+    private byte[] pageJson;
+    private byte[] detailsJson;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        parser = new TmdbResponseParser();
+        ReflectionTestUtils.setField(parser, "objectMapper", objectMapper);
+        parser.init();
+        pageJson = page(20).getBytes(StandardCharsets.UTF_8);
+        detailsJson = details(550).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public TmdbPageResponse pageStreaming() throws IOException {
+        return parser.parsePage(pageJson);
+    }
+
+    @Benchmark
+    public Map<String, Object> pageMap() throws IOException {
+        return objectMapper.readValue(pageJson, MAP_TYPE);
+    }
+
+    @Benchmark
+    public TmdbMovieDetails detailsStreaming() throws IOException {
+        return parser.parseDetails(detailsJson);
+    }
+
+    @Benchmark
+    public Map<String, Object> detailsMap() throws IOException {
+        return objectMapper.readValue(detailsJson, MAP_TYPE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TmdbResponseParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static String page(int results) {
+        StringBuilder json = new StringBuilder("{\"page\":1,\"results\":[");
+        for (int index = 0; index < results; index++) {
+            if (index > 0) {
+                json.append(',');
+            }
+            long id = 1000 + index;
+            json.append("{\"adult\":false,\"backdrop_path\":\"/backdrop").append(id).append(".jpg\",")
+                    .append("\"genre_ids\":[18,53,35],\"id\":").append(id).append(',')
+                    .append("\"original_language\":\"en\",\"original_title\":\"Movie ").append(id).append("\",")
+                    .append("\"overview\":\"").append(overview(id)).append("\",")
+                    .append("\"popularity\":").append(60.5 + index).append(',')
+                    .append("\"poster_path\":\"/poster").append(id).append(".jpg\",")
+                    .append("\"release_date\":\"1999-10-15\",\"title\":\"Movie ").append(id).append("\",")
+                    .append("\"video\":false,\"vote_average\":8.4,\"vote_count\":").append(20000 + index).append('}');
+        }
+        return json.append("],\"total_pages\":500,\"total_results\":10000}").toString();
+    }
+
+    private static String details(long id) {
+        return "{\"adult\":false,\"backdrop_path\":\"/backdrop.jpg\"," +
+                "\"belongs_to_collection\":null,\"budget\":63000000," +
+                "\"genres\":[{\"id\":18,\"name\":\"Drama\"},{\"id\":53,\"name\":\"Thriller\"}]," +
+                "\"homepage\":\"http://www.example.com/\",\"id\":" + id + ",\"imdb_id\":\"tt0137523\"," +
+                "\"original_language\":\"en\",\"original_title\":\"Fight Club\"," +
+                "\"overview\":\"" + overview(id) + "\",\"popularity\":61.416,\"poster_path\":\"/poster.jpg\"," +
+                "\"production_companies\":[{\"id\":508,\"logo_path\":\"/logo.png\",\"name\":\"Regency\",\"origin_country\":\"US\"}," +
+                "{\"id\":711,\"logo_path\":null,\"name\":\"Fox 2000\",\"origin_country\":\"US\"}]," +
+                "\"production_countries\":[{\"iso_3166_1\":\"US\",\"name\":\"United States of America\"}]," +
+                "\"release_date\":\"1999-10-15\",\"revenue\":100853753,\"runtime\":139," +
+                "\"spoken_languages\":[{\"english_name\":\"English\",\"iso_639_1\":\"en\",\"name\":\"English\"}]," +
+                "\"status\":\"Released\",\"tagline\":\"Mischief. Mayhem. Soap.\",\"title\":\"Fight Club\"," +
+                "\"video\":false,\"vote_average\":8.433,\"vote_count\":26280}";
+    }
+
+    private static String overview(long id) {
+        return "A ticking-time-bomb insomniac and a slippery soap salesman channel primal male " +
+                "aggression into a shocking new form of therapy. Entry " + id + ".";
+    }
+}
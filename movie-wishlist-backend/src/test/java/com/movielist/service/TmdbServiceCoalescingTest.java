@@ -0,0 +1,124 @@
+package com.movielist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movielist.payload.TmdbPageResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TmdbServiceCoalescingTest {
+
+    private static final int CALLERS = 16;
+
+    private static final String PAGE_JSON =
+            "{\"page\":1,\"total_pages\":1,\"total_results\":1," +
+            "\"results\":[{\"id\":550,\"title\":\"Fight Club\",\"release_date\":\"1999-10-15\"}]}";
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private HttpServer server;
+
+    private TmdbService tmdbService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/movie/popular", exchange -> {
+            hits.incrementAndGet();
+            try {
+                // Keeps the first request in flight while the other callers arrive
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = PAGE_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        // Cache misses and the resilience wrapper pass straight through to the loader
+        TmdbCache cache = mock(TmdbCache.class);
+        when(cache.get(anyString(), any(), any(), any())).thenAnswer(invocation ->
+                ((Supplier<CompletableFuture<?>>) invocation.getArgument(3)).get());
+        TmdbResilience resilience = mock(TmdbResilience.class);
+        when(resilience.execute(any())).thenAnswer(invocation ->
+                ((Supplier<CompletableFuture<?>>) invocation.getArgument(0)).get());
+
+        TmdbResponseParser parser = new TmdbResponseParser();
+        ReflectionTestUtils.setField(parser, "objectMapper", new ObjectMapper());
+        parser.init();
+
+        tmdbService = new TmdbService();
+        ReflectionTestUtils.setField(tmdbService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(tmdbService, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(tmdbService, "popularTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(tmdbService, "requestTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(tmdbService, "httpClient", HttpClient.newHttpClient());
+        ReflectionTestUtils.setField(tmdbService, "titleSuggestService", mock(TitleSuggestService.class));
+        ReflectionTestUtils.setField(tmdbService, "tmdbCache", cache);
+        ReflectionTestUtils.setField(tmdbService, "responseParser", parser);
+        ReflectionTestUtils.setField(tmdbService, "catalogService", mock(TmdbCatalogService.class));
+        ReflectionTestUtils.setField(tmdbService, "resilience", resilience);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentIdenticalRequestsShareOneUpstreamCall() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch ready = new CountDownLatch(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<TmdbPageResponse>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return tmdbService.getPopularMovies(1);
+                }));
+            }
+            ready.await(5, TimeUnit.SECONDS);
+            start.countDown();
+
+            for (Future<TmdbPageResponse> result : results) {
+                TmdbPageResponse page = result.get(10, TimeUnit.SECONDS);
+                assertEquals(Long.valueOf(550), page.getResults().get(0).getId());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, hits.get());
+    }
+}
@@ -0,0 +1,67 @@
+package com.movielist.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for one full AlsTrainer run on a synthetic rating matrix, at the configured ten
+ * iterations and lambda, across factor counts and pool sizes. Run main, or org.openjdk.jmh.Main
+ * with the test classpath, after mvn test-compile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AlsTrainerBenchmark {
+
+    @Param({"16", "32"})
+    private int factors;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private SyntheticRatings data;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        data = SyntheticRatings.generate(5_000, 2_000, 40, 8, 1.0, 42);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public AlsTrainer.Model train() throws InterruptedException, ExecutionException {
+        return new AlsTrainer(factors, 10, 0.05f, pool).train(data.getUsers(), data.getItems(),
+                data.getRatingUsers(), data.getRatingItems(), data.getRatings(), 42);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AlsTrainerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.movielist.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashLshTest {
+
+    private static final int BANDS = 16;
+    private static final int ROWS_PER_BAND = 4;
+
+    @Test
+    void addAllBucketsEachBandOnceAndMatchesElementwiseAdds() {
+        MinHashLsh elementwise = new MinHashLsh(BANDS, ROWS_PER_BAND, 7);
+        MinHashLsh bulk = new MinHashLsh(BANDS, ROWS_PER_BAND, 7);
+        Random random = new Random(42);
+        long[] shared = randomElements(random, 150);
+        for (long user = 1; user <= 20; user++) {
+            long[] elements = new long[200];
+            System.arraycopy(shared, 0, elements, 0, shared.length);
+            for (int index = shared.length; index < elements.length; index++) {
+                elements[index] = random.nextLong();
+            }
+            for (long element : elements) {
+                elementwise.add(user, element);
+            }
+            bulk.addAll(user, elements);
+        }
+
+        assertEquals(20 * BANDS, (int) ReflectionTestUtils.getField(bulk, "entries"));
+        assertTrue((int) ReflectionTestUtils.getField(elementwise, "entries") > 20 * BANDS);
+        assertArrayEquals((int[]) ReflectionTestUtils.getField(elementwise, "signatures"),
+                (int[]) ReflectionTestUtils.getField(bulk, "signatures"));
+
+        long[] ids = new long[5];
+        float[] similarities = new float[5];
+        assertEquals(5, bulk.query(1, 5, 1000, ids, similarities));
+        assertTrue(similarities[0] > 0.5f);
+    }
+
+    @Test
+    void addAllOnlyBucketsBandsThatChanged() {
+        MinHashLsh lsh = new MinHashLsh(BANDS, ROWS_PER_BAND, 7);
+        long[] elements = randomElements(new Random(1), 100);
+        assertTrue(lsh.addAll(1, elements));
+
+        assertFalse(lsh.addAll(1, elements));
+        assertFalse(lsh.addAll(2, new long[0]));
+        assertEquals(BANDS, (int) ReflectionTestUtils.getField(lsh, "entries"));
+        assertEquals(1, lsh.size());
+    }
+
+    private static long[] randomElements(Random random, int count) {
+        long[] elements = new long[count];
+        for (int index = 0; index < count; index++) {
+            elements[index] = random.nextLong();
+        }
+        return elements;
+    }
+}